@@ -0,0 +1,226 @@
+package com.example.dailywords;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Pronunciation clips on disk, keyed by URL and trimmed oldest-access-first past
+ * {@code maxBytes}. Downloads stream into a {@code .part} file that survives an interrupted
+ * transfer; the next attempt asks for the rest with a Range request and appends, falling back
+ * to a full download if the server ignores the range. Only complete clips are ever returned.
+ */
+public class AudioCache {
+    private static final String PART = ".part";
+
+    private final File dir;
+    private final long maxBytes;
+    private final long maxClipBytes;
+    private final Set<String> downloading = new HashSet<>();
+    private long bytes = -1;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong downloads = new AtomicLong();
+    private final AtomicLong resumed = new AtomicLong();
+    private final AtomicLong downloadedBytes = new AtomicLong();
+
+    public AudioCache(File dir, long maxBytes, long maxClipBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.maxClipBytes = maxClipBytes;
+    }
+
+    /** The cached clip for {@code url}, or null. Touches the disk, so call it off the main thread. */
+    public synchronized File get(String url) {
+        File file = fileFor(url);
+        if (!file.isFile()) return null;
+        file.setLastModified(System.currentTimeMillis());
+        hits.incrementAndGet();
+        return file;
+    }
+
+    /**
+     * Blocking: the clip for {@code url}, downloaded first if it isn't cached. Concurrent calls
+     * for the same clip share one download.
+     */
+    public File fetch(OkHttpClient client, String url) throws IOException {
+        String name = fileFor(url).getName();
+        synchronized (this) {
+            while (downloading.contains(name)) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for " + url);
+                }
+            }
+            File cached = get(url);
+            if (cached != null) return cached;
+            downloading.add(name);
+        }
+        try {
+            return download(client, url);
+        } finally {
+            synchronized (this) {
+                downloading.remove(name);
+                notifyAll();
+            }
+        }
+    }
+
+    /** Drops a clip that turned out to be unplayable. */
+    public synchronized void evict(File clip) {
+        ensureSize();
+        long length = clip.length();
+        if (clip.delete()) bytes -= length;
+    }
+
+    public String stats() {
+        return "hits=" + hits.get() + " downloads=" + downloads.get() + " resumed=" + resumed.get()
+                + " downloadedBytes=" + downloadedBytes.get();
+    }
+
+    private File download(OkHttpClient client, String url) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        File target = fileFor(url);
+        File part = new File(dir, target.getName() + PART);
+        // A part the server's range doesn't line up with would fail the same way on every retry;
+        // drop it and fetch the whole clip (which sends no Range, so this happens at most once)
+        if (!transfer(client, url, part)) {
+            part.delete();
+            transfer(client, url, part);
+        }
+
+        synchronized (this) {
+            ensureSize();
+            long previous = target.length();
+            if (!part.renameTo(target)) throw new IOException("Cannot store " + target);
+            bytes += target.length() - previous;
+            if (bytes > maxBytes) trim(target);
+        }
+        return target;
+    }
+
+    // Completes the part file; false if the server's answer to the Range request doesn't fit it
+    private boolean transfer(OkHttpClient client, String url, File part) throws IOException {
+        long have = part.length();
+        Request.Builder request = new Request.Builder().url(url);
+        if (have > 0) request.header("Range", "bytes=" + have + "-");
+        try (Response response = client.newCall(request.build()).execute()) {
+            boolean append = false;
+            long total;
+            if (response.code() == 206 && have > 0 && rangeStart(response) == have) {
+                append = true;
+                total = rangeTotal(response);
+                resumed.incrementAndGet();
+            } else if (response.code() == 416 && have > 0 && rangeTotal(response) == have) {
+                total = have; // the part was complete; it just never got renamed
+                append = true;
+            } else if (response.isSuccessful() && response.code() != 206) {
+                total = response.body().contentLength();
+            } else if (have > 0 && (response.code() == 206 || response.code() == 416)) {
+                return false;
+            } else {
+                throw new IOException("Audio HTTP " + response.code());
+            }
+            if (total > maxClipBytes) throw new IOException("Clip too large: " + total + " bytes");
+            if (!append) have = 0;
+
+            downloads.incrementAndGet();
+            try (InputStream in = response.body().byteStream();
+                 OutputStream out = new FileOutputStream(part, append)) {
+                byte[] buf = new byte[16 * 1024];
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    out.write(buf, 0, n);
+                    have += n;
+                    downloadedBytes.addAndGet(n);
+                    if (have > maxClipBytes) {
+                        part.delete();
+                        throw new IOException("Clip too large");
+                    }
+                }
+            }
+            // A short body keeps its part for the next attempt to resume from
+            if (total >= 0 && have != total) throw new IOException("Clip truncated at " + have + " of " + total);
+        }
+        return true;
+    }
+
+    // "Content-Range: bytes 100-199/200" -> 100; -1 if missing or malformed
+    private static long rangeStart(Response response) {
+        String range = response.header("Content-Range");
+        if (range == null || !range.startsWith("bytes ")) return -1;
+        int dash = range.indexOf('-');
+        try {
+            return dash > 6 ? Long.parseLong(range.substring(6, dash).trim()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // "Content-Range: bytes 100-199/200" or "bytes */200" -> 200; -1 if unknown
+    private static long rangeTotal(Response response) {
+        String range = response.header("Content-Range");
+        int slash = range != null ? range.lastIndexOf('/') : -1;
+        if (slash < 0) return -1;
+        try {
+            return Long.parseLong(range.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private File fileFor(String url) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < url.length(); i++) {
+            h ^= url.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        String path = url.toLowerCase(Locale.ROOT);
+        int query = path.indexOf('?');
+        if (query >= 0) path = path.substring(0, query);
+        int dot = path.lastIndexOf('.');
+        String ext = dot > path.lastIndexOf('/') && path.length() - dot <= 5 ? path.substring(dot) : ".audio";
+        return new File(dir, Long.toHexString(h) + ext);
+    }
+
+    // Only complete clips count; a part becomes one when it is renamed
+    private void ensureSize() {
+        if (bytes >= 0) return;
+        bytes = 0;
+        File[] files = dir.listFiles((d, name) -> !name.endsWith(PART));
+        if (files != null) for (File f : files) bytes += f.length();
+    }
+
+    private void trim(File keep) {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        long target = maxBytes * 9 / 10;
+        for (File f : files) {
+            String name = f.getName();
+            if (name.endsWith(PART)) {
+                // Abandoned transfers go too, unless one is in progress right now
+                if (!downloading.contains(name.substring(0, name.length() - PART.length()))) f.delete();
+                continue;
+            }
+            if (bytes <= target) continue;
+            if (f.equals(keep)) continue;
+            long length = f.length();
+            if (f.delete()) bytes -= length;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.dailywords;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with jitter. The delay before retry {@code n} is drawn uniformly from
+ * the upper half of {@code min(max, base * 2^(n-1))}, so retries from many clients spread out
+ * instead of arriving in lockstep, but none comes back immediately.
+ */
+public class Backoff {
+    private final long baseMillis;
+    private final long maxMillis;
+    private final int maxAttempts;
+    private final Random random;
+
+    public Backoff(long baseMillis, long maxMillis, int maxAttempts) {
+        this(baseMillis, maxMillis, maxAttempts, new Random());
+    }
+
+    Backoff(long baseMillis, long maxMillis, int maxAttempts, Random random) {
+        this.baseMillis = baseMillis;
+        this.maxMillis = maxMillis;
+        this.maxAttempts = maxAttempts;
+        this.random = random;
+    }
+
+    /** Whether retry number {@code attempt} (1-based) is still allowed. */
+    public boolean canRetry(int attempt) {
+        return attempt <= maxAttempts;
+    }
+
+    public long delayMillis(int attempt) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long cap = Math.min(maxMillis, baseMillis << shift);
+        long half = cap / 2;
+        synchronized (random) {
+            return half + (long) (random.nextDouble() * (cap - half));
+        }
+    }
+}
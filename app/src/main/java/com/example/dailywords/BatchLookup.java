@@ -0,0 +1,223 @@
+package com.example.dailywords;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves a list of words with at most {@code concurrency} lookups in flight. A lookup that
+ * throws is retried with backoff until the backoff gives up; resolved entries are handed to the
+ * sink in batches rather than one at a time. Rate limiting is the resolver's business, so
+ * lookups answered from a cache don't spend tokens.
+ */
+public class BatchLookup {
+    private static final long PROGRESS_INTERVAL_NANOS = 250_000_000L;
+
+    public interface Resolver {
+        /** The entry, or null if the word has no definition. Throws if worth retrying. */
+        WordItem resolve(String word) throws IOException;
+    }
+
+    public interface Sink {
+        void commit(List<WordItem> batch) throws IOException;
+    }
+
+    public interface Progress {
+        /** Called from a worker thread, at most every 250 ms, and once more at the end. */
+        void onProgress(Report soFar);
+    }
+
+    public static class Report {
+        public final int total;
+        public final int resolved;
+        public final int notFound;
+        public final int failed;
+        public final int retries;
+        public final int committed;
+        public final long elapsedMillis;
+        public final boolean cancelled;
+        public final List<String> failedWords;
+
+        Report(int total, int resolved, int notFound, int failed, int retries, int committed,
+               long elapsedMillis, boolean cancelled, List<String> failedWords) {
+            this.total = total;
+            this.resolved = resolved;
+            this.notFound = notFound;
+            this.failed = failed;
+            this.retries = retries;
+            this.committed = committed;
+            this.elapsedMillis = elapsedMillis;
+            this.cancelled = cancelled;
+            this.failedWords = failedWords;
+        }
+
+        public int done() {
+            return resolved + notFound + failed;
+        }
+
+        /** Words finished (found or not) per second of wall time. */
+        public double wordsPerSecond() {
+            return elapsedMillis > 0 ? done() * 1000.0 / elapsedMillis : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.ROOT,
+                    "%d/%d words: %d resolved, %d not found, %d failed, %d retries in %.1f s (%.1f words/s)",
+                    done(), total, resolved, notFound, failed, retries, elapsedMillis / 1000.0, wordsPerSecond());
+        }
+    }
+
+    private final Resolver resolver;
+    private final Sink sink;
+    private final int concurrency;
+    private final Backoff backoff;
+    private final int batchSize;
+
+    private final AtomicInteger resolved = new AtomicInteger();
+    private final AtomicInteger notFound = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger retries = new AtomicInteger();
+    private final List<String> failedWords = Collections.synchronizedList(new ArrayList<>());
+    private final Object commitLock = new Object();
+    private List<WordItem> pending = new ArrayList<>();
+    private final AtomicInteger committed = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile IOException sinkFailure;
+    private long startedAt;
+    private long progressAt;
+    private int total;
+
+    public BatchLookup(Resolver resolver, Sink sink, int concurrency, Backoff backoff, int batchSize) {
+        this.resolver = resolver;
+        this.sink = sink;
+        this.concurrency = Math.max(1, concurrency);
+        this.backoff = backoff;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /** Stops handing out words; lookups in flight finish and what resolved is still committed. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** Blocking; a BatchLookup runs once. Throws if the sink fails. */
+    public Report run(List<String> words, Progress progress) throws IOException, InterruptedException {
+        total = words.size();
+        startedAt = System.nanoTime();
+        progressAt = startedAt;
+        AtomicInteger next = new AtomicInteger();
+        int threads = Math.min(concurrency, Math.max(1, words.size()));
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            workers.execute(() -> {
+                int i;
+                while (!cancelled && sinkFailure == null && (i = next.getAndIncrement()) < words.size()) {
+                    lookup(words.get(i));
+                    maybeReport(progress);
+                }
+            });
+        }
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                // keep waiting; cancel() makes the workers wind down on their own
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            workers.shutdownNow();
+            throw e;
+        }
+        flush(true);
+        if (sinkFailure != null) throw sinkFailure;
+        Report report = snapshot();
+        if (progress != null) progress.onProgress(report);
+        return report;
+    }
+
+    private void lookup(String word) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                WordItem item = resolver.resolve(word);
+                if (item == null) {
+                    notFound.incrementAndGet();
+                } else {
+                    resolved.incrementAndGet();
+                    add(item);
+                }
+                return;
+            } catch (RuntimeException e) {
+                break; // a bug, not a flaky network; retrying won't help, but the word still counts
+            } catch (IOException e) {
+                if (cancelled || !backoff.canRetry(attempt)) break;
+                long delay = backoff.delayMillis(attempt);
+                if (e instanceof CircuitBreaker.OpenException) {
+                    delay = Math.max(delay, ((CircuitBreaker.OpenException) e).retryInMillis);
+                }
+                retries.incrementAndGet();
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        failed.incrementAndGet();
+        failedWords.add(word);
+    }
+
+    private void add(WordItem item) {
+        boolean full;
+        synchronized (this) {
+            pending.add(item);
+            full = pending.size() >= batchSize;
+        }
+        if (full) flush(false);
+    }
+
+    // Commits are serialized so batches reach the sink whole and in the order they filled
+    private void flush(boolean all) {
+        synchronized (commitLock) {
+            List<WordItem> batch;
+            synchronized (this) {
+                if (pending.isEmpty() || (!all && pending.size() < batchSize)) return;
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            if (sinkFailure != null) return;
+            try {
+                sink.commit(batch);
+                committed.addAndGet(batch.size());
+            } catch (IOException e) {
+                sinkFailure = e;
+            } catch (RuntimeException e) {
+                sinkFailure = new IOException("Commit failed: " + e, e);
+            }
+        }
+    }
+
+    private void maybeReport(Progress progress) {
+        if (progress == null) return;
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (now - progressAt < PROGRESS_INTERVAL_NANOS) return;
+            progressAt = now;
+        }
+        progress.onProgress(snapshot());
+    }
+
+    private Report snapshot() {
+        List<String> failedNow;
+        synchronized (failedWords) {
+            failedNow = new ArrayList<>(failedWords);
+        }
+        return new Report(total, resolved.get(), notFound.get(), failed.get(), retries.get(), committed.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), cancelled, failedNow);
+    }
+}
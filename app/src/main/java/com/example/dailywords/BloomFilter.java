@@ -0,0 +1,143 @@
+package com.example.dailywords;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A Bloom filter over strings, sized for an expected number of insertions and a target
+ * false-positive rate. Positions come from one 64-bit hash split into two halves and combined
+ * as {@code h1 + i * h2} (Kirsch–Mitzenmacher), so a lookup hashes the key once.
+ */
+public class BloomFilter {
+    private static final int MAGIC = 0x44574246; // "DWBF"
+    private static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private final int expected;
+    private final double fpp;
+    private final int numBits;
+    private final int numHashes;
+    private final long[] bits;
+    private int count;
+
+    public BloomFilter(int expectedInsertions, double fpp) {
+        if (expectedInsertions < 1) throw new IllegalArgumentException("expectedInsertions must be positive");
+        if (!(fpp > 0 && fpp < 1)) throw new IllegalArgumentException("fpp must be in (0, 1)");
+        this.expected = expectedInsertions;
+        this.fpp = fpp;
+        this.numBits = bitsFor(expectedInsertions, fpp);
+        this.numHashes = hashesFor(numBits, expectedInsertions);
+        this.bits = new long[(numBits + 63) >>> 6];
+    }
+
+    static int bitsFor(int expectedInsertions, double fpp) {
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        return (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+    }
+
+    static int hashesFor(int numBits, int expectedInsertions) {
+        return Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+    }
+
+    private BloomFilter(int expected, double fpp, int numBits, int numHashes, long[] bits, int count) {
+        this.expected = expected;
+        this.fpp = fpp;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+        this.bits = bits;
+        this.count = count;
+    }
+
+    public void add(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        count++;
+    }
+
+    /** False means definitely never added; true means probably added. */
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int expected() {
+        return expected;
+    }
+
+    public double fpp() {
+        return fpp;
+    }
+
+    /** Past its expected size the false-positive rate climbs above the target. */
+    public boolean isSaturated() {
+        return count > expected;
+    }
+
+    public int sizeInBytes() {
+        return bits.length * 8;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(expected);
+        out.writeDouble(fpp);
+        out.writeInt(numBits);
+        out.writeInt(numHashes);
+        out.writeInt(count);
+        for (long word : bits) out.writeLong(word);
+    }
+
+    /**
+     * Reads a filter written by {@link #writeTo}. The header has to match the sizing its own
+     * expected count and rate give, and the bit array has to fit in {@code maxBytes} (what is
+     * left of the file), so a corrupt header is an IOException rather than a huge allocation.
+     */
+    public static BloomFilter readFrom(DataInputStream in, long maxBytes) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Not a bloom filter");
+        int expected = in.readInt();
+        double fpp = in.readDouble();
+        int numBits = in.readInt();
+        int numHashes = in.readInt();
+        int count = in.readInt();
+        if (expected < 1 || !(fpp > 0 && fpp < 1) || numBits < 64 || count < 0
+                || numBits != bitsFor(expected, fpp) || numHashes != hashesFor(numBits, expected)) {
+            throw new IOException("Corrupt bloom filter header");
+        }
+        if (((long) numBits + 63) / 64 * 8 > maxBytes - HEADER_BYTES) {
+            throw new IOException("Bloom filter larger than its file");
+        }
+        long[] bits = new long[(numBits + 63) >>> 6];
+        for (int i = 0; i < bits.length; i++) bits[i] = in.readLong();
+        return new BloomFilter(expected, fpp, numBits, numHashes, bits, count);
+    }
+
+    // FNV-1a over the UTF-16 units, then a murmur3 finalizer so both halves are well mixed
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
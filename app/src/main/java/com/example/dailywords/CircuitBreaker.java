@@ -0,0 +1,76 @@
+package com.example.dailywords;
+
+import java.io.IOException;
+
+/**
+ * Guards one remote endpoint. After {@code failureThreshold} consecutive failures the breaker
+ * opens and calls fail fast for {@code openMillis}; then a single trial call is let through
+ * (half-open), and its outcome either closes the breaker again or re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Thrown instead of making a call while the breaker is open. */
+    public static class OpenException extends IOException {
+        public final long retryInMillis;
+
+        OpenException(String name, long retryInMillis) {
+            super(name + " circuit open, retry in " + retryInMillis + " ms");
+            this.retryInMillis = retryInMillis;
+        }
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /** Claims permission for one call; throws while the breaker is open. */
+    public synchronized void acquire() throws OpenException {
+        if (state == State.OPEN) {
+            long retryIn = openedAt + openMillis - System.currentTimeMillis();
+            if (retryIn > 0) throw new OpenException(name, retryIn);
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) throw new OpenException(name, openMillis);
+            trialInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    /** The claimed call was abandoned without an outcome. */
+    public synchronized void onCancelled() {
+        trialInFlight = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.dailywords;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The complete dictionaryapi.dev response for a word, kept as deflated JSON. Nothing is parsed
+ * up front: each section (pronunciations, the outline of parts of speech, one meaning's senses)
+ * is decoded by streaming over the inflated text only when asked for, skipping everything else,
+ * and is then remembered. Meanings of all entries in the response are numbered in order.
+ *
+ * Lists and the daily card keep using the {@link WordItem} summary; this is for detail views.
+ */
+public class DictionaryEntry {
+
+    public static class Phonetic {
+        public final String text;
+        public final String audio;
+
+        Phonetic(String text, String audio) {
+            this.text = text;
+            this.audio = audio;
+        }
+    }
+
+    public static class Sense {
+        public final String definition;
+        public final String example; // null if none
+        public final List<String> synonyms;
+        public final List<String> antonyms;
+
+        Sense(String definition, String example, List<String> synonyms, List<String> antonyms) {
+            this.definition = definition;
+            this.example = example;
+            this.synonyms = synonyms;
+            this.antonyms = antonyms;
+        }
+    }
+
+    public static class Meaning {
+        public final String partOfSpeech;
+        public final List<Sense> senses;
+        public final List<String> synonyms;
+        public final List<String> antonyms;
+
+        Meaning(String partOfSpeech, List<Sense> senses, List<String> synonyms, List<String> antonyms) {
+            this.partOfSpeech = partOfSpeech;
+            this.senses = senses;
+            this.synonyms = synonyms;
+            this.antonyms = antonyms;
+        }
+    }
+
+    private final String word;
+    private final byte[] compressed;
+    private List<Phonetic> phonetics;
+    private List<String> partsOfSpeech;
+    private Meaning[] meanings;
+
+    private DictionaryEntry(String word, byte[] compressed) {
+        this.word = word;
+        this.compressed = compressed;
+    }
+
+    public static DictionaryEntry fromJson(String word, byte[] json) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(json.length / 4 + 64);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buf, deflater)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory streams don't fail
+        } finally {
+            deflater.end();
+        }
+        return new DictionaryEntry(word, buf.toByteArray());
+    }
+
+    public static DictionaryEntry fromCompressed(String word, byte[] compressed) {
+        return new DictionaryEntry(word, compressed);
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    /** The stored form, deflated JSON. */
+    public byte[] compressed() {
+        return compressed;
+    }
+
+    /** Spelled-out pronunciations and audio URLs from every entry, audio-less ones included. */
+    public synchronized List<Phonetic> phonetics() {
+        if (phonetics == null) {
+            List<Phonetic> out = new ArrayList<>();
+            walk((name, reader) -> {
+                if (!name.equals("phonetics")) return Step.SKIP;
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String text = null, audio = null;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String field = reader.nextName();
+                        if (field.equals("text")) text = nextString(reader);
+                        else if (field.equals("audio")) audio = nextString(reader);
+                        else reader.skipValue();
+                    }
+                    reader.endObject();
+                    if (audio != null && audio.isEmpty()) audio = null;
+                    if (text != null || audio != null) out.add(new Phonetic(text, audio));
+                }
+                reader.endArray();
+                return Step.NEXT;
+            });
+            phonetics = Collections.unmodifiableList(out);
+        }
+        return phonetics;
+    }
+
+    /** Part of speech of every meaning, in order; decodes nothing else. */
+    public synchronized List<String> partsOfSpeech() {
+        if (partsOfSpeech == null) {
+            List<String> out = new ArrayList<>();
+            walk((name, reader) -> {
+                if (!name.equals("meanings")) return Step.SKIP;
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    String pos = null;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("partOfSpeech")) pos = nextString(reader);
+                        else reader.skipValue();
+                    }
+                    reader.endObject();
+                    out.add(pos != null ? pos : "");
+                }
+                reader.endArray();
+                return Step.NEXT;
+            });
+            partsOfSpeech = Collections.unmodifiableList(out);
+        }
+        return partsOfSpeech;
+    }
+
+    /** Meaning {@code index} in full, or null if there is no such meaning. */
+    public synchronized Meaning meaning(int index) {
+        int count = partsOfSpeech().size();
+        if (index < 0 || index >= count) return null;
+        if (meanings == null) meanings = new Meaning[count];
+        if (meanings[index] == null) {
+            Meaning[] found = new Meaning[1];
+            int[] seen = new int[1];
+            walk((name, reader) -> {
+                if (!name.equals("meanings")) return Step.SKIP;
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (seen[0]++ == index) {
+                        found[0] = readMeaning(reader);
+                        return Step.STOP; // the rest of the document is never inflated
+                    }
+                    reader.skipValue();
+                }
+                reader.endArray();
+                return Step.NEXT;
+            });
+            meanings[index] = found[0] != null ? found[0] : new Meaning(partsOfSpeech.get(index),
+                    Collections.<Sense>emptyList(), Collections.<String>emptyList(), Collections.<String>emptyList());
+        }
+        return meanings[index];
+    }
+
+    private enum Step { SKIP, NEXT, STOP }
+
+    private interface Visitor {
+        /**
+         * Called for each top-level field of each entry, positioned at its value. Returns SKIP to
+         * leave the value unread, NEXT once it has consumed the value, STOP to end the walk.
+         */
+        Step visit(String name, JsonReader reader) throws IOException;
+    }
+
+    private void walk(Visitor visitor) {
+        InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed));
+        try (JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.setStrictness(Strictness.LENIENT);
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) return;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    Step step = visitor.visit(reader.nextName(), reader);
+                    if (step == Step.STOP) return;
+                    if (step == Step.SKIP) reader.skipValue();
+                }
+                reader.endObject();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Truncated or odd-shaped data: keep whatever was decoded before the problem
+        }
+    }
+
+    private static Meaning readMeaning(JsonReader reader) throws IOException {
+        String pos = "";
+        List<Sense> senses = new ArrayList<>();
+        List<String> synonyms = Collections.emptyList();
+        List<String> antonyms = Collections.emptyList();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "partOfSpeech":
+                    String p = nextString(reader);
+                    if (p != null) pos = p;
+                    break;
+                case "definitions":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        Sense sense = readSense(reader);
+                        if (sense != null) senses.add(sense);
+                    }
+                    reader.endArray();
+                    break;
+                case "synonyms":
+                    synonyms = readStrings(reader);
+                    break;
+                case "antonyms":
+                    antonyms = readStrings(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new Meaning(pos, Collections.unmodifiableList(senses), synonyms, antonyms);
+    }
+
+    private static Sense readSense(JsonReader reader) throws IOException {
+        String definition = null, example = null;
+        List<String> synonyms = Collections.emptyList();
+        List<String> antonyms = Collections.emptyList();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "definition":
+                    definition = nextString(reader);
+                    break;
+                case "example":
+                    example = nextString(reader);
+                    break;
+                case "synonyms":
+                    synonyms = readStrings(reader);
+                    break;
+                case "antonyms":
+                    antonyms = readStrings(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (definition == null || definition.isEmpty()) return null;
+        return new Sense(definition, example == null || example.isEmpty() ? null : example, synonyms, antonyms);
+    }
+
+    private static List<String> readStrings(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return Collections.emptyList();
+        }
+        List<String> out = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String s = nextString(reader);
+            if (s != null && !s.isEmpty()) out.add(s);
+        }
+        reader.endArray();
+        return out.isEmpty() ? Collections.<String>emptyList() : Collections.unmodifiableList(out);
+    }
+
+    private static String nextString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) return reader.nextString();
+        reader.skipValue();
+        return null;
+    }
+}
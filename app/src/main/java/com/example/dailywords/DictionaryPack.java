@@ -0,0 +1,52 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Locates the optional offline dictionary. A pack downloaded to files/dictionary.pack wins;
+ * otherwise the bundled asset is mapped straight out of the APK (it is stored uncompressed,
+ * see noCompress in app/build.gradle). Returns null when neither exists.
+ */
+public class DictionaryPack {
+    private static final String TAG = "DictionaryPack";
+    static final String FILE_NAME = "dictionary.pack";
+
+    private static OfflineDictionary instance;
+    private static boolean opened;
+
+    public static synchronized OfflineDictionary get(Context context) {
+        if (!opened) {
+            opened = true;
+            instance = open(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private static OfflineDictionary open(Context context) {
+        try {
+            File downloaded = new File(context.getFilesDir(), FILE_NAME);
+            // The mapping outlives the stream and descriptor, so both are closed once it exists
+            if (downloaded.isFile()) {
+                try (FileInputStream in = new FileInputStream(downloaded)) {
+                    return new OfflineDictionary(in.getChannel(), 0, downloaded.length());
+                }
+            }
+            try (AssetFileDescriptor fd = context.getAssets().openFd(FILE_NAME);
+                 FileInputStream in = fd.createInputStream()) {
+                return new OfflineDictionary(in.getChannel(), fd.getStartOffset(), fd.getLength());
+            }
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.e(TAG, "Dictionary pack unusable: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.dailywords;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Pulls the summary fields out of a dictionaryapi.dev response without building a JSON tree.
+ *
+ * The result is the part of speech, first definition and example of the first meaning that has
+ * a definition, same as the tree-based parsing it replaces. Everything else (phonetics,
+ * synonyms, other senses) is skipped token by token, and reading stops as soon as the answer
+ * is known. Input of an unexpected shape yields whatever was found before the problem; broken
+ * JSON yields the "Not found" / "No example" defaults unless the answer was already complete.
+ */
+public final class DictionaryParser {
+    static final String NOT_FOUND = "Not found";
+    static final String NO_EXAMPLE = "No example";
+
+    private DictionaryParser() {}
+
+    public static WordItem parse(String word, String body) {
+        return parse(word, new StringReader(body));
+    }
+
+    public static WordItem parse(String word, Reader in) {
+        Result result = new Result();
+        try (JsonReader reader = new JsonReader(in)) {
+            reader.setStrictness(Strictness.LENIENT);
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) return result.toItem(word);
+            reader.beginArray();
+            if (!reader.hasNext()) return result.toItem(word);
+
+            // Only the first entry is used
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("meanings")) {
+                    readMeanings(reader, result);
+                    break;
+                }
+                reader.skipValue();
+            }
+        } catch (IOException e) {
+            // Broken JSON: the tree parser rejected these outright, so only keep a complete answer
+            if (!result.complete) return new Result().toItem(word);
+        } catch (RuntimeException e) {
+            // Well-formed but unexpected shape: keep what was found before it
+        }
+        return result.toItem(word);
+    }
+
+    private static void readMeanings(JsonReader reader, Result result) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (readMeaning(reader, result)) return;
+        }
+    }
+
+    // Returns true once the answer is complete
+    private static boolean readMeaning(JsonReader reader, Result result) throws IOException {
+        String pos = null;
+        boolean hasDefinitions = false;
+        boolean definitionFound = false;
+        String definition = null, example = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("partOfSpeech")) {
+                pos = reader.nextString();
+                result.pos = pos;
+            } else if (name.equals("definitions")) {
+                hasDefinitions = true;
+                reader.beginArray();
+                if (reader.hasNext()) {
+                    definitionFound = true;
+                    String[] first = readDefinition(reader);
+                    definition = first[0];
+                    example = first[1];
+                }
+                while (reader.hasNext()) reader.skipValue();
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+            if (pos != null && definitionFound) break;
+        }
+
+        if (pos == null) throw new IllegalStateException("Meaning without partOfSpeech");
+        if (!hasDefinitions) throw new IllegalStateException("Meaning without definitions");
+        if (!definitionFound) {
+            reader.endObject();
+            return false;
+        }
+        if (definition != null) result.definition = definition;
+        if (example != null) result.example = example;
+        result.complete = true;
+        return true;
+    }
+
+    private static String[] readDefinition(JsonReader reader) throws IOException {
+        String definition = null, example = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("definition")) definition = reader.nextString();
+            else if (name.equals("example")) example = reader.nextString();
+            else reader.skipValue();
+        }
+        reader.endObject();
+        return new String[] { definition, example };
+    }
+
+    private static class Result {
+        String pos = "";
+        String definition = NOT_FOUND;
+        String example = NO_EXAMPLE;
+        boolean complete;
+
+        WordItem toItem(String word) {
+            return new WordItem(word, pos, definition, example, 0);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.dailywords;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Full dictionary entries on disk, one deflated file per word, named like the lookup cache's.
+ * Entries don't expire, but the directory is trimmed oldest-access-first past {@code maxBytes};
+ * a word whose entry was trimmed is simply fetched again when its details are opened.
+ * Each file starts with its key, which has to match on read, as in {@link LookupCache}.
+ */
+public class EntryStore {
+    private static final int MAGIC = 0x44574553; // "DWES"
+
+    private final File dir;
+    private final long maxBytes;
+    private long bytes = -1;
+
+    public EntryStore(File dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /** The stored entry, or null. Reads the disk, so call it off the main thread. */
+    public synchronized DictionaryEntry get(String word) {
+        File file = fileFor(word);
+        if (!file.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not an entry file");
+            if (!LookupCache.key(word).equals(in.readUTF())) return null;
+            ByteArrayOutputStream buf = new ByteArrayOutputStream((int) file.length());
+            byte[] chunk = new byte[8192];
+            int n;
+            while ((n = in.read(chunk)) > 0) buf.write(chunk, 0, n);
+            file.setLastModified(System.currentTimeMillis());
+            return DictionaryEntry.fromCompressed(word, buf.toByteArray());
+        } catch (IOException e) {
+            delete(file);
+            return null;
+        }
+    }
+
+    public synchronized void put(DictionaryEntry entry) {
+        if (!dir.exists() && !dir.mkdirs()) return;
+        ensureSize();
+        File file = fileFor(entry.getWord());
+        File tmp = new File(dir, file.getName() + ".tmp");
+        long previous = file.length();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(LookupCache.key(entry.getWord()));
+            out.write(entry.compressed());
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return;
+        }
+        bytes += file.length() - previous;
+        if (bytes > maxBytes) trim();
+    }
+
+    private File fileFor(String word) {
+        return new File(dir, LookupCache.fileName(LookupCache.key(word)));
+    }
+
+    private void ensureSize() {
+        if (bytes >= 0) return;
+        bytes = 0;
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) bytes += f.length();
+    }
+
+    private void trim() {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        long target = maxBytes * 9 / 10;
+        for (File f : files) {
+            if (bytes <= target) break;
+            delete(f);
+        }
+    }
+
+    private void delete(File file) {
+        long length = file.length();
+        if (file.delete() && bytes >= 0) bytes -= length;
+    }
+}
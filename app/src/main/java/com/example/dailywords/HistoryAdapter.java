@@ -3,17 +3,81 @@ package com.example.dailywords;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ImageButton;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import java.util.List;
 
 public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.HistoryViewHolder> {
 
-    private final List<WordItem> historyList;
+    public interface OnItemClickListener {
+        void onItemClick(WordItem item);
+    }
+
+    private final HistoryPagingSource source;
+    private final PrecomputedTextCache meaningLayouts = new PrecomputedTextCache();
+    // Every row shares one style, so the first holder's params serve them all
+    private PrecomputedTextCompat.Params meaningParams;
+    private RecyclerView recyclerView;
+    private OnItemClickListener clickListener;
+    private OnItemClickListener playListener;
+    private int itemCount;
 
-    public HistoryAdapter(List<WordItem> historyList) {
-        this.historyList = historyList;
+    public HistoryAdapter(HistoryPagingSource source) {
+        this.source = source;
+        setHasStableIds(true);
+        source.setPageListener(this::onPageLoaded);
+    }
+
+    public void setOnItemClickListener(OnItemClickListener listener) {
+        this.clickListener = listener;
+    }
+
+    public void setOnPlayClickListener(OnItemClickListener listener) {
+        this.playListener = listener;
+    }
+
+    public void refresh() {
+        refresh(null);
+    }
+
+    // History is append-only, so the only possible change is new items at the top
+    public void refresh(Runnable onApplied) {
+        source.refresh(newSize -> {
+            // An insert delta may already have counted an entry this size was read before
+            applySize(Math.max(newSize, itemCount));
+            if (onApplied != null) onApplied.run();
+        });
+    }
+
+    /** Applies a single insert published by {@link WordRepository}. */
+    public void onHistoryInserted(int index, WordItem item) {
+        if (index < itemCount) return; // already counted by a refresh
+        source.put(index, item);
+        applySize(index + 1);
+    }
+
+    /** Applies a bulk append published by {@link WordRepository}; rows load from the source. */
+    public void onHistoryRangeInserted(int first, int count) {
+        if (first + count <= itemCount) return;
+        applySize(first + count);
+    }
+
+    private void applySize(int newSize) {
+        int added = newSize - itemCount;
+        if (added == 0) return;
+        boolean atTop = isScrolledToTop();
+        itemCount = newSize;
+        if (added > 0) {
+            notifyItemRangeInserted(0, added);
+            if (atTop && recyclerView != null) recyclerView.scrollToPosition(0);
+        } else {
+            notifyDataSetChanged();
+        }
     }
 
     @NonNull
@@ -21,28 +85,89 @@ public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.HistoryV
     public HistoryViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_word_history, parent, false);
-        return new HistoryViewHolder(view);
+        HistoryViewHolder holder = new HistoryViewHolder(view);
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position == RecyclerView.NO_POSITION || clickListener == null) return;
+            WordItem item = source.peek(toIndex(position));
+            if (item != null) clickListener.onItemClick(item);
+        });
+        holder.btnPlayHistory.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position == RecyclerView.NO_POSITION || playListener == null) return;
+            WordItem item = source.peek(toIndex(position));
+            if (item != null) playListener.onItemClick(item);
+        });
+        if (meaningParams == null) meaningParams = TextViewCompat.getTextMetricsParams(holder.tvHistoryMeaning);
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull HistoryViewHolder holder, int position) {
-        WordItem item = historyList.get(position);
-        holder.tvHistoryWord.setText(item.getWord());
-        holder.tvHistoryMeaning.setText(item.getMeaning());
+        int index = toIndex(position);
+        source.loadAround(index, itemCount);
+        WordItem item = source.peek(index);
+        holder.tvHistoryWord.setText(item != null ? item.getWord() : "");
+        if (item != null) {
+            // Measured in the background; layout only waits if the prefetch hasn't finished
+            holder.tvHistoryMeaning.setTextFuture(meaningLayouts.get(item.getMeaning(), meaningParams));
+        } else {
+            holder.tvHistoryMeaning.setTextFuture(null); // drop a future left over from the previous binding
+            holder.tvHistoryMeaning.setText("");
+        }
     }
 
     @Override
     public int getItemCount() {
-        return historyList.size();
+        return itemCount;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return toIndex(position);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = null;
+    }
+
+    private void onPageLoaded(int firstIndex, int count) {
+        int lastIndex = Math.min(itemCount, firstIndex + count) - 1;
+        if (lastIndex < firstIndex) return;
+        if (meaningParams != null) {
+            for (int index = firstIndex; index <= lastIndex; index++) {
+                WordItem item = source.peek(index);
+                if (item != null) meaningLayouts.prefetch(item.getMeaning(), meaningParams);
+            }
+        }
+        notifyItemRangeChanged(toIndex(lastIndex), lastIndex - firstIndex + 1);
+    }
+
+    private int toIndex(int position) {
+        return itemCount - 1 - position;
+    }
+
+    private boolean isScrolledToTop() {
+        if (recyclerView == null || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return false;
+        return ((LinearLayoutManager) recyclerView.getLayoutManager()).findFirstVisibleItemPosition() <= 0;
     }
 
     static class HistoryViewHolder extends RecyclerView.ViewHolder {
-        TextView tvHistoryWord, tvHistoryMeaning;
+        TextView tvHistoryWord;
+        AppCompatTextView tvHistoryMeaning;
+        ImageButton btnPlayHistory;
 
         HistoryViewHolder(View itemView) {
             super(itemView);
             tvHistoryWord = itemView.findViewById(R.id.tvHistoryWord);
             tvHistoryMeaning = itemView.findViewById(R.id.tvHistoryMeaning);
+            btnPlayHistory = itemView.findViewById(R.id.btnPlayHistory);
         }
     }
 }
@@ -0,0 +1,75 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs {@link HistoryTransfer} against documents picked by the user, off the main thread.
+ * Callbacks arrive on the main thread with a short message for the user.
+ */
+public class HistoryBackup {
+    private static final String TAG = "HistoryBackup";
+
+    public enum Format { BINARY, BINARY_GZIP, JSON }
+
+    public interface Callback {
+        void onDone(boolean success, String message);
+    }
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public static void export(Context context, Uri target, Format format, Callback callback) {
+        Context app = context.getApplicationContext();
+        executor.execute(() -> {
+            try (OutputStream out = app.getContentResolver().openOutputStream(target)) {
+                if (out == null) throw new IOException("Cannot open " + target);
+                HistoryLog history = HistoryStore.get(app);
+                int count = format == Format.JSON
+                        ? HistoryTransfer.exportJson(history, out)
+                        : HistoryTransfer.exportBinary(history, out, format == Format.BINARY_GZIP);
+                post(callback, true, "Exported " + count + " words");
+            } catch (IOException e) {
+                Log.e(TAG, "Export failed: " + e.getMessage());
+                post(callback, false, "Export failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Merges an export (either format) into history, skipping entries already there. */
+    public static void importFrom(Context context, Uri source, Callback callback) {
+        Context app = context.getApplicationContext();
+        executor.execute(() -> {
+            try (InputStream in = app.getContentResolver().openInputStream(source)) {
+                if (in == null) throw new IOException("Cannot open " + source);
+                WordRepository repository = WordRepository.get(app);
+                HistoryLog history = repository.history();
+                int before = history.size();
+                HistoryTransfer.Result result = HistoryTransfer.importFrom(history, in, repository::appendHistory);
+
+                // Make the imported words searchable, a page at a time
+                for (int from = before, size = history.size(); from < size; from += HistoryPagingSource.PAGE_SIZE) {
+                    for (WordItem item : history.read(from, HistoryPagingSource.PAGE_SIZE)) SearchSuggestions.add(item.getWord());
+                }
+                post(callback, true, "Imported " + result.added + " words, skipped "
+                        + result.duplicates() + " already in history");
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Import failed: " + e.getMessage());
+                post(callback, false, "Import failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private static void post(Callback callback, boolean success, String message) {
+        mainHandler.post(() -> callback.onDone(success, message));
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.dailywords;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only history storage.
+ *
+ * history.log holds the records: a header followed by [int length][int crc32][payload] entries.
+ * history.idx holds one long offset per record, so any position is a single seek away.
+ * Records are numbered in insertion order (0 = oldest); the UI shows them newest first.
+ *
+ * Writes go to the log first and the index second. On open, torn or unindexed records at the
+ * tail are detected with the checksum and the files are trimmed back to the last good record.
+ */
+public class HistoryLog {
+    private static final int MAGIC = 0x4457484C; // "DWHL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final RandomAccessFile log;
+    private final RandomAccessFile idx;
+    private long[] offsets = new long[64];
+    private int count;
+    private long logEnd;
+
+    public HistoryLog(File dir) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        log = new RandomAccessFile(new File(dir, "history.log"), "rw");
+        idx = new RandomAccessFile(new File(dir, "history.idx"), "rw");
+        try {
+            recover();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /** Appends one record and returns its index. */
+    public synchronized int append(WordItem item) throws IOException {
+        appendAll(Collections.singletonList(item));
+        return count - 1;
+    }
+
+    /** Appends records in order with a single log write and a single index write. */
+    public synchronized void appendAll(List<WordItem> items) throws IOException {
+        if (items.isEmpty()) return;
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        long[] added = new long[items.size()];
+        long pos = logEnd;
+        for (int i = 0; i < items.size(); i++) {
+            byte[] record = encodeRecord(items.get(i));
+            added[i] = pos;
+            pos += record.length;
+            buf.write(record);
+        }
+        log.seek(logEnd);
+        log.write(buf.toByteArray());
+        log.getChannel().force(false);
+
+        ByteArrayOutputStream idxBuf = new ByteArrayOutputStream(added.length * 8);
+        DataOutputStream idxOut = new DataOutputStream(idxBuf);
+        for (long offset : added) idxOut.writeLong(offset);
+        idx.seek((long) count * 8);
+        idx.write(idxBuf.toByteArray());
+
+        for (long offset : added) push(offset);
+        logEnd = pos;
+    }
+
+    /** Record by insertion index, 0 being the oldest. */
+    public synchronized WordItem get(int index) throws IOException {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("index " + index + ", size " + count);
+        return decode(readPayload(offsets[index]));
+    }
+
+    /** Record by display position, 0 being the newest. */
+    public synchronized WordItem getNewest(int position) throws IOException {
+        return get(count - 1 - position);
+    }
+
+    /** Up to {@code limit} records starting at insertion index {@code from}, oldest first. */
+    public synchronized List<WordItem> read(int from, int limit) throws IOException {
+        int end = Math.min(count, from + limit);
+        List<WordItem> out = new ArrayList<>(Math.max(0, end - from));
+        for (int i = from; i < end; i++) out.add(get(i));
+        return out;
+    }
+
+    /** Up to {@code limit} records starting at display position {@code from}, newest first. */
+    public synchronized List<WordItem> readNewest(int from, int limit) throws IOException {
+        int end = Math.min(count, from + limit);
+        List<WordItem> out = new ArrayList<>(Math.max(0, end - from));
+        for (int p = from; p < end; p++) out.add(getNewest(p));
+        return out;
+    }
+
+    public synchronized void clear() throws IOException {
+        log.setLength(0);
+        writeHeader();
+        idx.setLength(0);
+        count = 0;
+        logEnd = HEADER_SIZE;
+    }
+
+    public synchronized void close() throws IOException {
+        log.close();
+        idx.close();
+    }
+
+    private void recover() throws IOException {
+        if (log.length() < HEADER_SIZE || !hasValidHeader()) {
+            log.setLength(0);
+            writeHeader();
+            idx.setLength(0);
+        }
+        long logLength = log.length();
+
+        // One read for the whole index; RandomAccessFile.readLong is eight single-byte reads
+        int indexed = (int) (idx.length() / 8);
+        byte[] raw = new byte[indexed * 8];
+        idx.seek(0);
+        idx.readFully(raw);
+        // Headroom, or the first append after every open copies the whole array
+        offsets = new long[Math.max(64, indexed + indexed / 4)];
+        ByteBuffer index = ByteBuffer.wrap(raw);
+        for (int i = 0; i < indexed; i++) push(index.getLong());
+
+        // Drop index entries that point at torn or missing records
+        while (count > 0 && recordEnd(offsets[count - 1], logLength) < 0) count--;
+        int validIndexed = count;
+
+        // Pick up records that reached the log but not the index
+        long pos = count > 0 ? recordEnd(offsets[count - 1], logLength) : HEADER_SIZE;
+        long end;
+        while ((end = recordEnd(pos, logLength)) >= 0) {
+            push(pos);
+            pos = end;
+        }
+
+        logEnd = pos;
+        if (logLength != logEnd) log.setLength(logEnd);
+        if (validIndexed != indexed || count != validIndexed || idx.length() != (long) count * 8) {
+            idx.setLength((long) validIndexed * 8);
+            ByteBuffer missing = ByteBuffer.allocate((count - validIndexed) * 8);
+            for (int i = validIndexed; i < count; i++) missing.putLong(offsets[i]);
+            idx.seek((long) validIndexed * 8);
+            idx.write(missing.array());
+        }
+    }
+
+    // Returns the end offset of a well-formed record at pos, or -1 if it is torn or corrupt
+    private long recordEnd(long pos, long logLength) throws IOException {
+        if (pos < HEADER_SIZE || pos + RECORD_HEADER_SIZE > logLength) return -1;
+        log.seek(pos);
+        int length = log.readInt();
+        int crc = log.readInt();
+        if (length < 0 || pos + RECORD_HEADER_SIZE + length > logLength) return -1;
+        byte[] payload = new byte[length];
+        log.readFully(payload);
+        return checksum(payload) == crc ? pos + RECORD_HEADER_SIZE + length : -1;
+    }
+
+    private byte[] readPayload(long offset) throws IOException {
+        log.seek(offset);
+        int length = log.readInt();
+        log.readInt();
+        byte[] payload = new byte[length];
+        log.readFully(payload);
+        return payload;
+    }
+
+    private boolean hasValidHeader() throws IOException {
+        log.seek(0);
+        return log.readInt() == MAGIC && log.readInt() == VERSION;
+    }
+
+    private void writeHeader() throws IOException {
+        log.seek(0);
+        log.writeInt(MAGIC);
+        log.writeInt(VERSION);
+    }
+
+    private void push(long offset) {
+        if (count == offsets.length) offsets = Arrays.copyOf(offsets, count * 2);
+        offsets[count++] = offset;
+    }
+
+    static byte[] encodeRecord(WordItem item) throws IOException {
+        byte[] payload = encode(item);
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(RECORD_HEADER_SIZE + payload.length);
+        DataOutputStream out = new DataOutputStream(buf);
+        out.writeInt(payload.length);
+        out.writeInt(checksum(payload));
+        out.write(payload);
+        return buf.toByteArray();
+    }
+
+    static byte[] encode(WordItem item) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(buf);
+        writeString(out, item.getWord());
+        writeString(out, item.getPos());
+        writeString(out, item.getMeaning());
+        writeString(out, item.getExample());
+        out.writeLong(item.getSavedAt());
+        return buf.toByteArray();
+    }
+
+    static WordItem decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        String word = readString(in);
+        String pos = readString(in);
+        String meaning = readString(in);
+        String example = readString(in);
+        long savedAt = in.readLong();
+        return new WordItem(word, pos, meaning, example, savedAt);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads history in fixed pages on a background thread and keeps a small LRU of loaded pages.
+ * Pages are keyed by insertion index, so new words (which are appended) never shift pages
+ * that are already cached. Cache state is only touched on the main thread.
+ */
+public class HistoryPagingSource {
+    private static final String TAG = "HistoryPagingSource";
+    static final int PAGE_SIZE = 30;
+    private static final int PREFETCH_PAGES = 1;
+    private static final int MAX_CACHED_PAGES = 8;
+
+    public interface PageListener {
+        void onPageLoaded(int firstIndex, int count);
+    }
+
+    public interface SizeCallback {
+        void onSize(int size);
+    }
+
+    // Shared by every source, so a recreated activity doesn't leave a thread behind
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Set<Integer> pending = new HashSet<>();
+    private final LinkedHashMap<Integer, WordItem[]> pages =
+            new LinkedHashMap<Integer, WordItem[]>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, WordItem[]> eldest) {
+                    return size() > MAX_CACHED_PAGES;
+                }
+            };
+    private PageListener listener;
+
+    public HistoryPagingSource(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public void setPageListener(PageListener listener) {
+        this.listener = listener;
+    }
+
+    /** Cached record at insertion index, or null if its page isn't loaded yet. */
+    public WordItem peek(int index) {
+        WordItem[] page = pages.get(index / PAGE_SIZE);
+        return page != null ? page[index % PAGE_SIZE] : null;
+    }
+
+    /**
+     * Adds a freshly appended record to the cache. Only a cached page or the start of a new
+     * one can take it; a page that isn't cached loads in full when it's first needed.
+     */
+    public void put(int index, WordItem item) {
+        int page = index / PAGE_SIZE;
+        WordItem[] items = pages.get(page);
+        if (items == null && index % PAGE_SIZE == 0) {
+            items = new WordItem[PAGE_SIZE];
+            pages.put(page, items);
+        }
+        if (items != null) items[index % PAGE_SIZE] = item;
+    }
+
+    /** Makes sure the page holding {@code index} and its neighbours are loaded or loading. */
+    public void loadAround(int index, int size) {
+        int page = index / PAGE_SIZE;
+        int lastPage = (size - 1) / PAGE_SIZE;
+        for (int p = Math.max(0, page - PREFETCH_PAGES); p <= Math.min(lastPage, page + PREFETCH_PAGES); p++) {
+            if (!isLoaded(p, size)) loadPage(p);
+        }
+    }
+
+    /** Reads the current size and preloads the newest page before reporting it. */
+    public void refresh(SizeCallback callback) {
+        executor.execute(() -> {
+            HistoryLog log;
+            try {
+                log = HistoryStore.get(context);
+            } catch (IOException e) {
+                Log.e(TAG, "History unavailable: " + e.getMessage());
+                mainHandler.post(() -> callback.onSize(0));
+                return;
+            }
+            int size = log.size();
+            int newestPage = size > 0 ? (size - 1) / PAGE_SIZE : -1;
+            WordItem[] items = newestPage >= 0 ? readPage(log, newestPage) : null;
+            mainHandler.post(() -> {
+                if (items != null) pages.put(newestPage, items);
+                callback.onSize(size);
+            });
+        });
+    }
+
+    private boolean isLoaded(int page, int size) {
+        WordItem[] items = pages.get(page);
+        if (items == null) return false;
+        int last = Math.min(size, (page + 1) * PAGE_SIZE) - 1;
+        return items[last % PAGE_SIZE] != null;
+    }
+
+    private void loadPage(int page) {
+        if (!pending.add(page)) return;
+        executor.execute(() -> {
+            WordItem[] items = readPage(context, page);
+            mainHandler.post(() -> {
+                pending.remove(page);
+                if (items == null) return;
+                pages.put(page, items);
+                if (listener != null) listener.onPageLoaded(page * PAGE_SIZE, PAGE_SIZE);
+            });
+        });
+    }
+
+    private static WordItem[] readPage(Context context, int page) {
+        try {
+            return readPage(HistoryStore.get(context), page);
+        } catch (IOException e) {
+            Log.e(TAG, "History unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static WordItem[] readPage(HistoryLog log, int page) {
+        try {
+            List<WordItem> read = log.read(page * PAGE_SIZE, PAGE_SIZE);
+            return read.toArray(new WordItem[PAGE_SIZE]);
+        } catch (IOException e) {
+            Log.e(TAG, "Page " + page + " load failed: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Full-text search over history meanings and examples, backed by an {@link InvertedIndex}
+ * persisted next to the history log. All index work happens on one background thread; the
+ * index catches up with the log on load and after every append. Appends go to a delta log,
+ * which is folded into a full snapshot once it grows past half the snapshot's size.
+ */
+public class HistorySearch {
+    private static final String TAG = "HistorySearch";
+    private static final String INDEX_FILE = "history.terms";
+    private static final String DELTA_FILE = "history.terms.delta";
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    public interface Callback {
+        void onResults(String query, List<WordItem> items);
+    }
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static InvertedIndex index;
+
+    /** Called after an entry has been appended to the history log. */
+    public static void onHistoryAppended(Context context) {
+        Context app = context.getApplicationContext();
+        executor.execute(() -> ensureIndex(app));
+    }
+
+    public static void search(Context context, String query, int limit, Callback callback) {
+        Context app = context.getApplicationContext();
+        executor.execute(() -> {
+            List<WordItem> items = new ArrayList<>();
+            InvertedIndex idx = ensureIndex(app);
+            try {
+                HistoryLog history = HistoryStore.get(app);
+                for (InvertedIndex.Hit hit : idx.search(query, limit)) items.add(history.get(hit.doc));
+            } catch (IOException e) {
+                Log.e(TAG, "Reading hits failed: " + e.getMessage());
+            }
+            mainHandler.post(() -> callback.onResults(query, items));
+        });
+    }
+
+    // Runs on the executor
+    private static InvertedIndex ensureIndex(Context context) {
+        File file = new File(context.getFilesDir(), INDEX_FILE);
+        File delta = new File(context.getFilesDir(), DELTA_FILE);
+        if (index == null) index = InvertedIndex.load(file, delta);
+
+        HistoryLog history;
+        try {
+            history = HistoryStore.get(context);
+        } catch (IOException e) {
+            Log.e(TAG, "History unavailable: " + e.getMessage());
+            return index;
+        }
+        int from = index.indexedDocs();
+        int to = history.size();
+        boolean rebuilt = false;
+        if (from > to) {
+            // History was rebuilt underneath us; start over
+            index = new InvertedIndex();
+            from = 0;
+            rebuilt = true;
+        }
+        if (from == to && !rebuilt) return index;
+        try {
+            for (int doc = from; doc < to; doc++) index.add(doc, text(history.get(doc)));
+            if (rebuilt || delta.length() > Math.max(MIN_COMPACT_BYTES, file.length() / 2)) {
+                index.save(file);
+                delta.delete();
+            } else {
+                index.appendDelta(delta);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Index update failed: " + e.getMessage());
+        }
+        return index;
+    }
+
+    private static String text(WordItem item) {
+        StringBuilder text = new StringBuilder(item.getWord());
+        // Placeholders from the parser say nothing about the word
+        if (!DictionaryParser.NOT_FOUND.equals(item.getMeaning())) text.append(' ').append(item.getMeaning());
+        if (!DictionaryParser.NO_EXAMPLE.equals(item.getExample())) text.append(' ').append(item.getExample());
+        return text.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Process-wide access to the {@link HistoryLog} in the app's files dir.
+ * The first open migrates the legacy {@link MainActivity#HISTORY_KEY} JSON blob into the log.
+ * A failed open isn't remembered, so the next caller tries again.
+ */
+public class HistoryStore {
+    private static final String TAG = "HistoryStore";
+    private static HistoryLog instance;
+
+    public static synchronized HistoryLog get(Context context) throws IOException {
+        if (instance == null) {
+            Context app = context.getApplicationContext();
+            HistoryLog log = new HistoryLog(new File(app.getFilesDir(), "history"));
+            try {
+                migrateFromPrefs(app, log);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "History open failed: " + e.getMessage());
+                log.close();
+                throw e;
+            }
+            instance = log;
+        }
+        return instance;
+    }
+
+    private static void migrateFromPrefs(Context context, HistoryLog log) throws IOException {
+        SharedPreferences prefs = context.getSharedPreferences(MainActivity.PREFS, Context.MODE_PRIVATE);
+        String json = prefs.getString(MainActivity.HISTORY_KEY, null);
+        if (json == null) return;
+
+        Type type = new TypeToken<ArrayList<WordItem>>(){}.getType();
+        List<WordItem> legacy = new Gson().fromJson(json, type);
+        List<WordItem> oldestFirst = legacy != null ? new ArrayList<>(legacy) : new ArrayList<>();
+        Collections.reverse(oldestFirst);
+
+        // The blob is only removed after the log is written, so a crash in between re-runs
+        // the whole migration; clear first so that re-run doesn't duplicate entries.
+        log.clear();
+        log.appendAll(oldestFirst);
+        prefs.edit().remove(MainActivity.HISTORY_KEY).commit();
+        SeenWords.onHistoryRebuilt(context);
+        Log.d(TAG, "Migrated " + oldestFirst.size() + " history entries");
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.dailywords;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the history log to and from portable files, a batch at a time. Export memory stays
+ * constant; import memory doesn't (see below).
+ *
+ * Binary format: magic "DWHX", version, a flags byte (bit 0: gzip-compressed body), then the
+ * body: per entry an int length and the {@link HistoryLog#encode} payload, ended by length -1.
+ * The JSON variant is an array of {word, pos, meaning, example, savedAt} objects.
+ *
+ * Import detects the format, appends entries oldest first and skips any entry whose word and
+ * timestamp are already in history (or earlier in the same file). The entries themselves are
+ * streamed, but dedup is O(n): one 64-bit hash per history and imported entry in a table kept
+ * at most half full, so 16-32 bytes per entry (about 2.4-4.8 MB for 150k entries).
+ */
+public class HistoryTransfer {
+    private static final int MAGIC = 0x44574858; // "DWHX"
+    private static final int VERSION = 1;
+    private static final int FLAG_GZIP = 1;
+    private static final int END = -1;
+    // Guards against reading a corrupt length as a huge allocation
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int BATCH = 500;
+    private static final int SNIFF_BYTES = 64;
+
+    /** Where import batches go; {@link HistoryLog#appendAll} or the repository's equivalent. */
+    public interface Appender {
+        void append(List<WordItem> batch) throws IOException;
+    }
+
+    public static class Result {
+        public final int read;
+        public final int added;
+
+        Result(int read, int added) {
+            this.read = read;
+            this.added = added;
+        }
+
+        public int duplicates() {
+            return read - added;
+        }
+    }
+
+    public static int exportBinary(HistoryLog history, OutputStream target, boolean compress) throws IOException {
+        DataOutputStream header = new DataOutputStream(target);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeByte(compress ? FLAG_GZIP : 0);
+        header.flush();
+
+        GZIPOutputStream gzip = compress ? new GZIPOutputStream(target, 64 * 1024) : null;
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip != null ? gzip : target, 64 * 1024));
+        int written = 0;
+        for (int from = 0, size = history.size(); from < size; from += BATCH) {
+            for (WordItem item : history.read(from, BATCH)) {
+                byte[] payload = HistoryLog.encode(item);
+                out.writeInt(payload.length);
+                out.write(payload);
+                written++;
+            }
+        }
+        out.writeInt(END);
+        out.flush();
+        if (gzip != null) gzip.finish();
+        target.flush();
+        return written;
+    }
+
+    public static int exportJson(HistoryLog history, OutputStream target) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        JsonWriter json = new JsonWriter(writer);
+        json.beginArray();
+        int written = 0;
+        for (int from = 0, size = history.size(); from < size; from += BATCH) {
+            for (WordItem item : history.read(from, BATCH)) {
+                json.beginObject();
+                json.name("word").value(item.getWord());
+                json.name("pos").value(item.getPos());
+                json.name("meaning").value(item.getMeaning());
+                json.name("example").value(item.getExample());
+                json.name("savedAt").value(item.getSavedAt());
+                json.endObject();
+                written++;
+            }
+        }
+        json.endArray();
+        json.flush();
+        return written;
+    }
+
+    /** Reads either format and merges it into {@code history}. */
+    public static Result importFrom(HistoryLog history, InputStream source) throws IOException {
+        return importFrom(history, source, history::appendAll);
+    }
+
+    /** Like {@link #importFrom(HistoryLog, InputStream)}, with new entries handed to {@code appender}. */
+    public static Result importFrom(HistoryLog history, InputStream source, Appender appender) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(source, 64 * 1024);
+        LongSet seen = new LongSet(history.size());
+        for (int from = 0, size = history.size(); from < size; from += BATCH) {
+            for (WordItem item : history.read(from, BATCH)) seen.add(key(item));
+        }
+
+        in.mark(SNIFF_BYTES);
+        int first = in.read();
+        // JSON may start with a UTF-8 BOM and whitespace; the binary magic starts with 'D'
+        for (int i = 1; i < SNIFF_BYTES && (Character.isWhitespace(first) || first == 0xEF || first == 0xBB || first == 0xBF); i++) {
+            first = in.read();
+        }
+        in.reset();
+        Merger merger = new Merger(appender, seen);
+        if (first == '[') readJson(in, merger);
+        else readBinary(in, merger);
+        merger.flush();
+        return new Result(merger.read, merger.added);
+    }
+
+    private static void readBinary(InputStream source, Merger merger) throws IOException {
+        DataInputStream header = new DataInputStream(source);
+        if (header.readInt() != MAGIC) throw new IOException("Not a DailyWords history export");
+        int version = header.readInt();
+        if (version != VERSION) throw new IOException("Unsupported export version " + version);
+        int flags = header.readUnsignedByte();
+
+        DataInputStream in = new DataInputStream((flags & FLAG_GZIP) != 0
+                ? new BufferedInputStream(new GZIPInputStream(source, 64 * 1024), 64 * 1024)
+                : source);
+        byte[] buffer = new byte[256];
+        for (int length = in.readInt(); length != END; length = in.readInt()) {
+            if (length < 0 || length > MAX_RECORD_BYTES) throw new IOException("Bad record length " + length);
+            if (length > buffer.length) buffer = new byte[Math.max(length, buffer.length * 2)];
+            in.readFully(buffer, 0, length);
+            merger.offer(HistoryLog.decode(Arrays.copyOf(buffer, length)));
+        }
+    }
+
+    private static void readJson(InputStream source, Merger merger) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(source, StandardCharsets.UTF_8));
+        reader.setStrictness(Strictness.LENIENT);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String word = null, pos = "", meaning = DictionaryParser.NOT_FOUND, example = DictionaryParser.NO_EXAMPLE;
+            long savedAt = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "word": word = reader.nextString(); break;
+                    case "pos": pos = reader.nextString(); break;
+                    case "meaning": meaning = reader.nextString(); break;
+                    case "example": example = reader.nextString(); break;
+                    case "savedAt": savedAt = reader.nextLong(); break;
+                    default: reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (word != null) merger.offer(new WordItem(word, pos, meaning, example, savedAt));
+        }
+        reader.endArray();
+    }
+
+    /** Batches new entries into the log, skipping ones already seen. */
+    private static class Merger {
+        private final Appender appender;
+        private final LongSet seen;
+        private final List<WordItem> batch = new ArrayList<>(BATCH);
+        int read;
+        int added;
+
+        Merger(Appender appender, LongSet seen) {
+            this.appender = appender;
+            this.seen = seen;
+        }
+
+        void offer(WordItem item) throws IOException {
+            read++;
+            if (!seen.add(key(item))) return;
+            batch.add(item);
+            if (batch.size() == BATCH) flush();
+        }
+
+        void flush() throws IOException {
+            if (batch.isEmpty()) return;
+            appender.append(batch);
+            added += batch.size();
+            batch.clear();
+        }
+    }
+
+    // 64-bit FNV-1a over the normalized word and the timestamp
+    static long key(WordItem item) {
+        long h = 0xcbf29ce484222325L;
+        String word = item.getWord().trim().toLowerCase(Locale.ROOT);
+        for (int i = 0; i < word.length(); i++) {
+            h = (h ^ word.charAt(i)) * 0x100000001b3L;
+        }
+        long savedAt = item.getSavedAt();
+        for (int i = 0; i < 8; i++) {
+            h = (h ^ ((savedAt >>> (i * 8)) & 0xFF)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /** Open-addressing set of longs; a slot holding 0 is empty, so 0 itself is tracked apart. */
+    private static class LongSet {
+        private long[] slots;
+        private int size;
+        private boolean hasZero;
+
+        LongSet(int expected) {
+            int capacity = 16;
+            while (capacity < expected * 2) capacity <<= 1;
+            slots = new long[capacity];
+        }
+
+        boolean add(long value) {
+            if (value == 0) {
+                if (hasZero) return false;
+                return hasZero = true;
+            }
+            int mask = slots.length - 1;
+            int i = (int) (value ^ (value >>> 32)) & mask;
+            while (slots[i] != 0) {
+                if (slots[i] == value) return false;
+                i = (i + 1) & mask;
+            }
+            slots[i] = value;
+            if (++size * 2 > slots.length) grow();
+            return true;
+        }
+
+        private void grow() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            int mask = slots.length - 1;
+            for (long value : old) {
+                if (value == 0) continue;
+                int i = (int) (value ^ (value >>> 32)) & mask;
+                while (slots[i] != 0) i = (i + 1) & mask;
+                slots[i] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.dailywords;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Token to posting-list index over history text, with TF-IDF ranking.
+ *
+ * Documents are history insertion indices, which only ever grow, so posting lists stay sorted
+ * by appending and are persisted as varint deltas. Between full snapshots, newly added documents
+ * are appended to a delta log as one record each, so an insert costs a write proportional to
+ * the document, not to the index. {@link #indexedDocs()} says how far snapshot plus delta got;
+ * the owner re-adds anything after that from the history log.
+ */
+public class InvertedIndex {
+    private static final int MAGIC = 0x44574949; // "DWII"
+    // 2: entries no longer index the word "null" for missing fields
+    private static final int VERSION = 2;
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "with"));
+
+    private static class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    public static class Hit {
+        public final int doc;
+        public final float score;
+
+        Hit(int doc, float score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private int indexedDocs;
+    // Delta records for documents added since the last save or appendDelta
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+    public synchronized int indexedDocs() {
+        return indexedDocs;
+    }
+
+    /** Indexes {@code doc}; documents must be added in increasing order. */
+    public synchronized void add(int doc, String text) {
+        if (doc < indexedDocs) return;
+        Map<String, Integer> counts = new HashMap<>();
+        for (String token : tokenize(text)) {
+            Integer c = counts.get(token);
+            counts.put(token, c == null ? 1 : c + 1);
+        }
+        apply(doc, counts);
+        try {
+            DataOutputStream out = new DataOutputStream(pending);
+            writeVarint(out, doc);
+            writeVarint(out, counts.size());
+            for (Map.Entry<String, Integer> e : counts.entrySet()) {
+                out.writeUTF(e.getKey());
+                writeVarint(out, e.getValue());
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e); // in-memory stream
+        }
+    }
+
+    private void apply(int doc, Map<String, Integer> counts) {
+        for (Map.Entry<String, Integer> e : counts.entrySet()) {
+            Postings p = terms.get(e.getKey());
+            if (p == null) terms.put(e.getKey(), p = new Postings());
+            p.add(doc, e.getValue());
+        }
+        indexedDocs = doc + 1;
+    }
+
+    /** Appends the documents added since the last save or append to {@code delta}. */
+    public synchronized void appendDelta(File delta) throws IOException {
+        if (pending.size() == 0) return;
+        try (FileOutputStream out = new FileOutputStream(delta, true)) {
+            pending.writeTo(out);
+            out.getFD().sync();
+        }
+        pending.reset();
+    }
+
+    /** Documents matching any query term, best first. */
+    public synchronized List<Hit> search(String query, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        if (indexedDocs == 0) return hits;
+        float[] scores = new float[indexedDocs];
+        for (String token : new HashSet<>(tokenize(query))) {
+            Postings p = terms.get(token);
+            if (p == null) continue;
+            float idf = (float) Math.log(1 + (double) indexedDocs / p.size);
+            for (int i = 0; i < p.size; i++) {
+                scores[p.docs[i]] += (1 + (float) Math.log(p.freqs[i])) * idf;
+            }
+        }
+        for (int doc = indexedDocs - 1; doc >= 0; doc--) {
+            if (scores[doc] > 0) hits.add(new Hit(doc, scores[doc]));
+        }
+        // Stable sort keeps newer documents first among equal scores
+        hits.sort((a, b) -> Float.compare(b.score, a.score));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /** Writes a full snapshot; the caller deletes the delta log once this returns. */
+    public synchronized void save(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(indexedDocs);
+            out.writeInt(terms.size());
+            for (Map.Entry<String, Postings> e : terms.entrySet()) {
+                Postings p = e.getValue();
+                out.writeUTF(e.getKey());
+                writeVarint(out, p.size);
+                int previous = 0;
+                for (int i = 0; i < p.size; i++) {
+                    writeVarint(out, p.docs[i] - previous);
+                    writeVarint(out, p.freqs[i]);
+                    previous = p.docs[i];
+                }
+            }
+        }
+        if (!tmp.renameTo(file)) throw new IOException("Cannot replace " + file);
+        pending.reset();
+    }
+
+    /**
+     * Loads a snapshot written by {@link #save} and replays {@code delta} on top of it. A missing
+     * or unreadable snapshot gives an empty index; the delta is replayed up to its first torn,
+     * corrupt or out-of-sequence record, and cut back to there so later appends stay readable.
+     */
+    public static InvertedIndex load(File file, File delta) {
+        InvertedIndex index = loadSnapshot(file);
+        if (!delta.isFile()) return index;
+        // The owner compacts the delta long before it gets big, so it is read in one go
+        byte[] bytes;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(delta))) {
+            bytes = new byte[(int) delta.length()];
+            in.readFully(bytes);
+        } catch (IOException e) {
+            delta.delete();
+            return index;
+        }
+        ByteArrayInputStream buffer = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(buffer);
+        long good = 0;
+        try {
+            while (buffer.available() > 0) {
+                int doc = readVarint(in);
+                int size = readVarint(in);
+                Map<String, Integer> counts = new HashMap<>();
+                for (int i = 0; i < size; i++) counts.put(in.readUTF(), readVarint(in));
+                // Records before the snapshot's end are already in it (crash between save and delete)
+                if (doc > index.indexedDocs) break;
+                if (doc == index.indexedDocs) index.apply(doc, counts);
+                good = bytes.length - buffer.available();
+            }
+        } catch (IOException e) {
+            // Torn tail; keep what was read
+        }
+        if (good < bytes.length) {
+            try (RandomAccessFile raf = new RandomAccessFile(delta, "rw")) {
+                raf.setLength(good);
+            } catch (IOException e) {
+                delta.delete();
+            }
+        }
+        return index;
+    }
+
+    private static InvertedIndex loadSnapshot(File file) {
+        InvertedIndex index = new InvertedIndex();
+        if (!file.isFile()) return index;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return index;
+            int indexedDocs = in.readInt();
+            int termCount = in.readInt();
+            for (int t = 0; t < termCount; t++) {
+                String term = in.readUTF();
+                int size = readVarint(in);
+                Postings p = new Postings();
+                int doc = 0;
+                for (int i = 0; i < size; i++) {
+                    doc += readVarint(in);
+                    p.add(doc, readVarint(in));
+                }
+                index.terms.put(term, p);
+            }
+            index.indexedDocs = indexedDocs;
+            return index;
+        } catch (IOException e) {
+            return new InvertedIndex();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                String token = lower.substring(start, i);
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) tokens.add(token);
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Bad varint");
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.dailywords;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-stage time budgets for a refresh. Stage timings are recorded against an open refresh id;
+ * when the refresh closes, its worst time per stage is compared with the budget and the result
+ * kept in a short ring of recent refreshes. Safe to use from any thread.
+ */
+public class LatencyBudget {
+
+    public static class Refresh {
+        public final int id;
+        public final String trigger;
+        public final long totalMillis;
+        /** Worst time per stage, in the order stages first ran. */
+        public final Map<String, Long> stages;
+        public final List<String> overBudget;
+
+        Refresh(int id, String trigger, long totalMillis, Map<String, Long> stages, List<String> overBudget) {
+            this.id = id;
+            this.trigger = trigger;
+            this.totalMillis = totalMillis;
+            this.stages = stages;
+            this.overBudget = overBudget;
+        }
+
+        public boolean isOverBudget() {
+            return !overBudget.isEmpty();
+        }
+    }
+
+    private static class Open {
+        final String trigger;
+        final long startNanos;
+        final Map<String, Long> stages = new LinkedHashMap<>();
+
+        Open(String trigger, long startNanos) {
+            this.trigger = trigger;
+            this.startNanos = startNanos;
+        }
+    }
+
+    public static final String TOTAL = "total";
+
+    private final Map<String, Long> budgets = new LinkedHashMap<>();
+    private final Map<Integer, Open> open = new HashMap<>();
+    private final Deque<Refresh> recent = new ArrayDeque<>();
+    private final int keep;
+
+    public LatencyBudget(int keep) {
+        this.keep = keep;
+    }
+
+    public synchronized LatencyBudget budget(String stage, long millis) {
+        budgets.put(stage, millis);
+        return this;
+    }
+
+    public synchronized void open(int id, String trigger, long startNanos) {
+        open.put(id, new Open(trigger, startNanos));
+    }
+
+    /** Ignored unless {@code id} is open, so late work from a finished refresh doesn't count. */
+    public synchronized void record(int id, String stage, long millis) {
+        Open refresh = open.get(id);
+        if (refresh == null) return;
+        Long worst = refresh.stages.get(stage);
+        if (worst == null || millis > worst) refresh.stages.put(stage, millis);
+    }
+
+    /** Closes {@code id}; null if it wasn't open. */
+    public synchronized Refresh close(int id, long endNanos) {
+        Open refresh = open.remove(id);
+        if (refresh == null) return null;
+        long total = (endNanos - refresh.startNanos) / 1_000_000;
+        Map<String, Long> stages = new LinkedHashMap<>(refresh.stages);
+        stages.put(TOTAL, total);
+        List<String> over = new ArrayList<>();
+        for (Map.Entry<String, Long> stage : stages.entrySet()) {
+            Long budget = budgets.get(stage.getKey());
+            if (budget != null && stage.getValue() > budget) over.add(stage.getKey());
+        }
+        Refresh done = new Refresh(id, refresh.trigger, total, Collections.unmodifiableMap(stages),
+                Collections.unmodifiableList(over));
+        recent.addFirst(done);
+        while (recent.size() > keep) recent.removeLast();
+        return done;
+    }
+
+    public synchronized long budgetFor(String stage) {
+        Long budget = budgets.get(stage);
+        return budget != null ? budget : -1;
+    }
+
+    /** One line per over-budget stage, e.g. {@code resolve 5400 ms > 3000 ms}. */
+    public String describeOverruns(Refresh refresh) {
+        StringBuilder out = new StringBuilder();
+        for (String stage : refresh.overBudget) {
+            if (out.length() > 0) out.append('\n');
+            out.append(stage).append(' ').append(refresh.stages.get(stage)).append(" ms > ")
+                    .append(budgetFor(stage)).append(" ms");
+        }
+        return out.toString();
+    }
+
+    /** Plain-text table of recent refreshes, newest first; over-budget stages are starred. */
+    public synchronized String report() {
+        StringBuilder out = new StringBuilder("budgets ms:");
+        for (Map.Entry<String, Long> b : budgets.entrySet()) out.append(' ').append(b.getKey()).append('=').append(b.getValue());
+        if (recent.isEmpty()) return out.append("\nno refreshes yet").toString();
+        for (Refresh r : recent) {
+            out.append(String.format(Locale.ROOT, "\n#%d %s %d ms%s", r.id, r.trigger, r.totalMillis,
+                    r.isOverBudget() ? "  OVER BUDGET" : ""));
+            for (Map.Entry<String, Long> stage : r.stages.entrySet()) {
+                if (stage.getKey().equals(TOTAL)) continue;
+                out.append(String.format(Locale.ROOT, "\n  %-14s %6d%s", stage.getKey(), stage.getValue(),
+                        r.overBudget.contains(stage.getKey()) ? " *" : ""));
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.dailywords;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket latency histogram. Bucket bounds follow a 1-2-3-5-7 progression from 1 ms to a
+ * minute, so recording is a short scan plus one atomic increment and never allocates.
+ * Percentiles are interpolated linearly inside the bucket they fall in.
+ */
+public class LatencyHistogram {
+    private static final long[] BOUNDS_MS = {
+            1, 2, 3, 5, 7, 10, 15, 20, 30, 50, 70, 100, 150, 200, 300, 500, 700,
+            1_000, 1_500, 2_000, 3_000, 5_000, 7_000, 10_000, 15_000, 30_000, 60_000
+    };
+
+    // One extra bucket for everything above the last bound
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MS.length + 1);
+
+    public void recordNanos(long nanos) {
+        if (nanos < 0) return;
+        long ms = nanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < BOUNDS_MS.length && ms >= BOUNDS_MS[bucket]) bucket++;
+        counts.incrementAndGet(bucket);
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+        return total;
+    }
+
+    /** The {@code p}-th percentile (0 < p <= 1) in milliseconds, or -1 with no samples. */
+    public double percentileMs(double p) {
+        long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) total += snapshot[i] = counts.get(i);
+        if (total == 0) return -1;
+
+        double rank = p * total;
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            if (snapshot[i] == 0 || seen + snapshot[i] < rank) {
+                seen += snapshot[i];
+                continue;
+            }
+            long lower = i == 0 ? 0 : BOUNDS_MS[i - 1];
+            if (i == BOUNDS_MS.length) return lower; // open-ended overflow bucket
+            double within = (rank - seen) / snapshot[i];
+            return lower + within * (BOUNDS_MS[i] - lower);
+        }
+        return BOUNDS_MS[BOUNDS_MS.length - 1];
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.dailywords;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache for dictionary lookups: a bounded in-memory LRU in front of a directory of
+ * small entry files. Every entry carries an expiry time; words the dictionary doesn't know are
+ * stored as negative entries (with a shorter TTL) so they don't go back to the network.
+ * The disk tier is trimmed oldest-access-first once it grows past {@code maxDiskBytes}.
+ *
+ * Each file starts with the key it was stored under, and a read only counts if that key matches,
+ * so a file can never answer for another word. Negative entries live under a "!" name so the
+ * words that do exist can be listed without opening every file.
+ */
+public class LookupCache {
+    public static final long POSITIVE_TTL_MS = 30L * 24 * 60 * 60 * 1000;
+    public static final long NEGATIVE_TTL_MS = 24L * 60 * 60 * 1000;
+
+    private static final int MAGIC = 0x44574C43; // "DWLC"
+    private static final String NEGATIVE_PREFIX = "!";
+    private static final String HASHED_PREFIX = "#";
+    private static final int MAX_NAME_LENGTH = 120;
+
+    /** A cached lookup; {@link #item} is null for a negative entry. */
+    public static class Entry {
+        public final WordItem item;
+        final long expiresAt;
+
+        Entry(WordItem item, long expiresAt) {
+            this.item = item;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isNegative() { return item == null; }
+    }
+
+    private final File dir;
+    private final long maxDiskBytes;
+    private final Map<String, Entry> memory;
+    private long diskBytes = -1;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LookupCache(File dir, int maxMemoryEntries, long maxDiskBytes) {
+        this.dir = dir;
+        this.maxDiskBytes = maxDiskBytes;
+        this.memory = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxMemoryEntries) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    public static String key(String word) {
+        return word.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Memory tier only; cheap enough to call on the main thread. */
+    public synchronized Entry getFromMemory(String word) {
+        Entry entry = memory.get(key(word));
+        if (entry == null) return null;
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            memory.remove(key(word));
+            return null;
+        }
+        memoryHits.incrementAndGet();
+        if (entry.isNegative()) negativeHits.incrementAndGet();
+        return entry;
+    }
+
+    /** Both tiers. Reads the disk, so call it off the main thread. */
+    public synchronized Entry get(String word) {
+        Entry entry = getFromMemory(word);
+        if (entry != null) return entry;
+
+        String key = key(word);
+        File file = fileFor(key);
+        entry = readEntry(file, key);
+        if (entry == null) {
+            file = negativeFileFor(key);
+            entry = readEntry(file, key);
+        }
+        if (entry == null || entry.expiresAt < System.currentTimeMillis()) {
+            if (entry != null) deleteFile(file);
+            misses.incrementAndGet();
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        memory.put(key, entry);
+        diskHits.incrementAndGet();
+        if (entry.isNegative()) negativeHits.incrementAndGet();
+        return entry;
+    }
+
+    public synchronized void put(String word, WordItem item) {
+        store(key(word), new Entry(item, System.currentTimeMillis() + POSITIVE_TTL_MS));
+    }
+
+    public synchronized void putNegative(String word) {
+        store(key(word), new Entry(null, System.currentTimeMillis() + NEGATIVE_TTL_MS));
+    }
+
+    /** Words with a positive entry on disk (hashed names excluded); used to seed search suggestions. */
+    public synchronized String[] diskKeys() {
+        String[] names = dir.list();
+        if (names == null) return new String[0];
+        List<String> keys = new ArrayList<>(names.length);
+        for (String name : names) {
+            if (name.startsWith(NEGATIVE_PREFIX)) continue;
+            String key = keyFromName(name);
+            if (key != null) keys.add(key);
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    public String stats() {
+        return "memoryHits=" + memoryHits.get() + " diskHits=" + diskHits.get()
+                + " negativeHits=" + negativeHits.get() + " misses=" + misses.get()
+                + " evictions=" + evictions.get();
+    }
+
+    private void store(String key, Entry entry) {
+        memory.put(key, entry);
+        ensureDiskSize();
+        File file = entry.isNegative() ? negativeFileFor(key) : fileFor(key);
+        long previous = file.length();
+        if (!writeEntry(file, key, entry)) return;
+        diskBytes += file.length() - previous;
+        // A word is either known or unknown; drop the file for the other answer
+        deleteFile(entry.isNegative() ? fileFor(key) : negativeFileFor(key));
+        if (diskBytes > maxDiskBytes) trimDisk();
+    }
+
+    private void ensureDiskSize() {
+        if (diskBytes >= 0) return;
+        diskBytes = 0;
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) diskBytes += f.length();
+    }
+
+    private void trimDisk() {
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        // Trim to 90% so a full cache doesn't re-sort the directory on every put
+        long target = maxDiskBytes * 9 / 10;
+        for (File f : files) {
+            if (diskBytes <= target) break;
+            String name = f.getName();
+            String key = keyFromName(name.startsWith(NEGATIVE_PREFIX) ? name.substring(1) : name);
+            if (key == null) key = storedKey(f);
+            deleteFile(f);
+            if (key != null) memory.remove(key);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void deleteFile(File file) {
+        long length = file.length();
+        if (file.delete() && diskBytes >= 0) diskBytes -= length;
+    }
+
+    private File fileFor(String key) {
+        return new File(dir, fileName(key));
+    }
+
+    private File negativeFileFor(String key) {
+        return new File(dir, NEGATIVE_PREFIX + fileName(key));
+    }
+
+    // Entries are stored under their key with every byte outside [a-z'-] percent-escaped, which
+    // keeps names unique and reversible. Keys too long for that fall back to a SHA-1 name; those
+    // are the only names that can't be turned back into a key.
+    static String fileName(String key) {
+        StringBuilder name = new StringBuilder(key.length());
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || c == '-' || c == '\'') name.append(c);
+            else name.append('%').append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+        }
+        if (name.length() > 0 && name.length() <= MAX_NAME_LENGTH) return name.toString();
+        return HASHED_PREFIX + sha1(key);
+    }
+
+    /** The key a {@link #fileName} came from, or null for a hashed or foreign name. */
+    static String keyFromName(String name) {
+        if (name.isEmpty() || name.startsWith(HASHED_PREFIX) || name.startsWith(NEGATIVE_PREFIX)) return null;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= name.length()) return null;
+                int hi = Character.digit(name.charAt(i + 1), 16), lo = Character.digit(name.charAt(i + 2), 16);
+                if (hi < 0 || lo < 0) return null;
+                bytes.write(hi << 4 | lo);
+                i += 2;
+            } else if ((c >= 'a' && c <= 'z') || c == '-' || c == '\'') {
+                bytes.write(c);
+            } else {
+                return null;
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String sha1(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) hex.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String storedKey(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC ? in.readUTF() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Null if the file is missing, unreadable or holds another key
+    private static Entry readEntry(File file, String key) {
+        if (!file.isFile()) return null;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a lookup entry");
+            if (!key.equals(in.readUTF())) return null;
+            long expiresAt = in.readLong();
+            boolean negative = in.readBoolean();
+            if (negative) return new Entry(null, expiresAt);
+            int length = in.readInt();
+            // A corrupt length must not become a NegativeArraySizeException or a huge allocation
+            if (length < 0 || length > file.length()) throw new IOException("Bad lookup entry length");
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            return new Entry(HistoryLog.decode(payload), expiresAt);
+        } catch (IOException e) {
+            file.delete();
+            return null;
+        }
+    }
+
+    // Written to a temp file and renamed into place, so a reader never sees half an entry. The
+    // temp name has a '.', which fileName always escapes, so it can't be mistaken for an entry.
+    private boolean writeEntry(File file, String key, Entry entry) {
+        if (!dir.exists() && !dir.mkdirs()) return false;
+        File tmp = new File(dir, file.getName() + ".tmp");
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(buf);
+            out.writeInt(MAGIC);
+            out.writeUTF(key);
+            out.writeLong(entry.expiresAt);
+            out.writeBoolean(entry.isNegative());
+            if (!entry.isNegative()) {
+                byte[] payload = HistoryLog.encode(entry.item);
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+            try (FileOutputStream fos = new FileOutputStream(tmp)) {
+                fos.write(buf.toByteArray());
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return false;
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return false;
+        }
+        return true;
+    }
+}
@@ -1,20 +1,34 @@
 package com.example.dailywords;
 
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import android.Manifest;
 import android.app.AlarmManager;
 import android.app.PendingIntent;
 import android.content.*;
+import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
+import android.graphics.Typeface;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextUtils;
+import android.text.TextWatcher;
+import android.view.Gravity;
 import android.view.KeyEvent;
 import android.view.View;
 import android.view.inputmethod.EditorInfo;
+import android.widget.ArrayAdapter;
 import android.widget.Button;
+import android.widget.EditText;
+import android.widget.HorizontalScrollView;
 import android.widget.LinearLayout;
+import android.widget.ListPopupWindow;
 import android.widget.ProgressBar;
+import android.widget.ScrollView;
 import android.widget.TextView;
+import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.core.content.ContextCompat;
@@ -24,11 +38,11 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
 import android.view.animation.AlphaAnimation;
@@ -48,25 +62,65 @@ public class MainActivity extends AppCompatActivity {
 
     private RecyclerView rvHistory;
     private HistoryAdapter historyAdapter;
-    private List<WordItem> historyList = new ArrayList<>();
 
     public static final String PREFS = "DailyWordPrefs";
     public static final String HISTORY_KEY = "word_history";
 
-    private BroadcastReceiver wordUpdateReceiver;
+    private final WordRepository.Observer wordObserver = new WordRepository.Observer() {
+        @Override
+        public void onCurrentWordChanged(WordItem current) {
+            try (RefreshTrace.Span span = RefreshTrace.section(RefreshTrace.RENDER)) {
+                showCurrentWord(current);
+            }
+        }
+
+        @Override
+        public void onHistoryInserted(int index, WordItem item) {
+            try (RefreshTrace.Span span = RefreshTrace.section(RefreshTrace.RENDER)) {
+                historyAdapter.onHistoryInserted(index, item);
+            }
+        }
+
+        @Override
+        public void onHistoryRangeInserted(int first, int count) {
+            historyAdapter.onHistoryRangeInserted(first, count);
+        }
+    };
+    private final StartupMetrics startupMetrics = new StartupMetrics();
 
-    private Gson gson = new Gson();
     private LinearLayout searchContainer;
     private TextInputLayout searchLayout;
+    private ListPopupWindow suggestionPopup;
+    private ArrayAdapter<String> suggestionAdapter;
+    // Text put in the search box by picking a suggestion; it must not bring the popup back
+    private String pickedSuggestion;
 
 
     private final ActivityResultLauncher<String> requestPermissionLauncher =
             registerForActivityResult(new ActivityResultContracts.RequestPermission(), isGranted -> {});
+    private final ActivityResultLauncher<String> exportLauncher =
+            registerForActivityResult(new ActivityResultContracts.CreateDocument("application/octet-stream"), uri -> {
+                if (uri != null) HistoryBackup.export(this, uri, HistoryBackup.Format.BINARY_GZIP, this::onTransferDone);
+            });
+    private final ActivityResultLauncher<String> exportJsonLauncher =
+            registerForActivityResult(new ActivityResultContracts.CreateDocument("application/json"), uri -> {
+                if (uri != null) HistoryBackup.export(this, uri, HistoryBackup.Format.JSON, this::onTransferDone);
+            });
+    private final ActivityResultLauncher<String[]> importLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) HistoryBackup.importFrom(this, uri, this::onTransferDone);
+            });
+    private final ActivityResultLauncher<String[]> wordListLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) startWordListImport(listener -> WordListImport.fromUri(this, uri, listener));
+            });
+    private AlertDialog wordListProgress;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
+        startupMetrics.watchFirstFrame(getWindow().getDecorView());
 
         // Daily word views
         tvWord = findViewById(R.id.tvWord);
@@ -91,31 +145,51 @@ public class MainActivity extends AppCompatActivity {
         // History RecyclerView
         rvHistory = findViewById(R.id.rvHistory);
         rvHistory.setLayoutManager(new LinearLayoutManager(this));
-        historyAdapter = new HistoryAdapter(historyList);
+        historyAdapter = new HistoryAdapter(new HistoryPagingSource(this));
         rvHistory.setAdapter(historyAdapter);
+        historyAdapter.setOnItemClickListener(item -> showDetails(item.getWord()));
+        historyAdapter.setOnPlayClickListener(item -> playPronunciation(item.getWord()));
 
         requestNotificationPermissionIfNeeded();
 
-        //Load history into RecyclerView
-        loadHistory();
+        //Render the current word from its snapshot first, then follow changes in-process
+        WordRepository repository = WordRepository.get(this);
+        showCurrentWord(repository.current());
+        repository.observe(wordObserver);
 
-        //Load current word from SharedPreferences
-        loadSavedWord();
+        //History pages load in the background; the screen is complete once the newest page is in
+        historyAdapter.refresh(() -> {
+            if (startupMetrics.markFullyDrawn()) reportFullyDrawn();
+        });
 
         searchLayout.setStartIconOnClickListener(v -> performSearch());
 
+        //Tapping a word opens its full entry
+        tvWord.setOnClickListener(v -> {
+            WordItem current = WordRepository.get(this).current();
+            if (current != null) showDetails(current.getWord());
+        });
+        searchResultContainer.setOnClickListener(v -> showDetails(tvSearchWord.getText().toString()));
+
+        //Pronunciation plays from the audio cache; the current word's clip is prefetched
+        findViewById(R.id.btnPlayWord).setOnClickListener(v -> {
+            WordItem current = WordRepository.get(this).current();
+            if (current != null) playPronunciation(current.getWord());
+        });
+        findViewById(R.id.btnPlaySearch).setOnClickListener(v -> playPronunciation(tvSearchWord.getText().toString()));
+
         searchLayout.setEndIconOnClickListener(v -> toggleSearch(false));
 
         //Manual refresh
         btnRefreshNow.setOnClickListener(v -> {
             progress.setVisibility(View.VISIBLE);
-            WordFetcher.fetchWord(MainActivity.this, false, () -> {
-                progress.setVisibility(View.GONE);
-                loadSavedWord();
-                loadHistory(); // update history UI
-            });
+            // The repository observer updates the word and history as the refresh saves
+            WordFetcher.fetchWord(MainActivity.this, false, () -> progress.setVisibility(View.GONE));
         });
 
+        //Suggestions while typing
+        setupSuggestions();
+
         //Handle search action
         etSearch.setOnEditorActionListener((textView, actionId, keyEvent) -> {
             if (actionId == EditorInfo.IME_ACTION_SEARCH ||
@@ -127,30 +201,65 @@ public class MainActivity extends AppCompatActivity {
             return false;
         });
 
+        //Network stats and latency budgets are a debugging aid; release builds get them through dumpsys only
+        boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        topAppBar.getMenu().findItem(R.id.action_network_stats).setVisible(debuggable);
+        topAppBar.getMenu().findItem(R.id.action_latency_budget).setVisible(debuggable);
+        if (debuggable) {
+            RefreshTrace.setListener((refresh, overruns) -> Toast.makeText(this,
+                    "Refresh #" + refresh.id + " over budget: " + TextUtils.join(", ", refresh.overBudget),
+                    Toast.LENGTH_SHORT).show());
+        }
         topAppBar.setOnMenuItemClickListener(item -> {
             if (item.getItemId() == R.id.action_open_search) {
                 toggleSearch(true);
                 return true;
+            } else if (item.getItemId() == R.id.action_review) {
+                startReview();
+                return true;
+            } else if (item.getItemId() == R.id.action_search_history) {
+                showHistorySearch();
+                return true;
+            } else if (item.getItemId() == R.id.action_export_history) {
+                exportLauncher.launch("dailywords-history.dwh");
+                return true;
+            } else if (item.getItemId() == R.id.action_export_history_json) {
+                exportJsonLauncher.launch("dailywords-history.json");
+                return true;
+            } else if (item.getItemId() == R.id.action_import_history) {
+                importLauncher.launch(new String[]{"application/octet-stream", "application/json", "*/*"});
+                return true;
+            } else if (item.getItemId() == R.id.action_import_word_list) {
+                showWordListImport();
+                return true;
+            } else if (item.getItemId() == R.id.action_network_stats) {
+                showReport("Network stats", WordFetcher.networkMetrics().report());
+                return true;
+            } else if (item.getItemId() == R.id.action_latency_budget) {
+                showReport("Latency budget", RefreshTrace.budget().report());
+                return true;
             }
             return false;
         });
 
+        //Opened from a notification with reviews due
+        if (getIntent().getBooleanExtra(NotificationHelper.EXTRA_START_REVIEW, false)) startReview();
+
+        //Work the first frame doesn't depend on runs once the main thread goes idle
+        Looper.myQueue().addIdleHandler(() -> {
+            if (!isDestroyed()) runDeferredSetup();
+            return false;
+        });
+    }
+
+    private void runDeferredSetup() {
         //Schedule repeating fetch
         scheduleRepeatingAlarm();
 
-        //Listen for broadcast when a new word is saved
-        wordUpdateReceiver = new BroadcastReceiver() {
-            @Override
-            public void onReceive(Context context, Intent intent) {
-                loadSavedWord();
-                loadHistory();
-            }
-        };
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            registerReceiver(wordUpdateReceiver,
-                    new IntentFilter("com.example.dailywords.NEW_WORD"),
-                    Context.RECEIVER_EXPORTED);
-        }
+        //Keep a few ready words buffered so refreshes don't wait on the network
+        PrefetchQueue.get(this).refillIfNeeded();
+
+        SearchSuggestions.warmUp(this);
     }
 
     private void requestNotificationPermissionIfNeeded() {
@@ -161,7 +270,286 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    private void setupSuggestions() {
+        suggestionAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, new ArrayList<>());
+        suggestionPopup = new ListPopupWindow(this);
+        suggestionPopup.setAnchorView(searchLayout);
+        suggestionPopup.setAdapter(suggestionAdapter);
+        suggestionPopup.setOnItemClickListener((parent, view, position, id) -> {
+            String word = suggestionAdapter.getItem(position);
+            suggestionPopup.dismiss();
+            pickedSuggestion = word;
+            etSearch.setText(word);
+            etSearch.setSelection(word.length());
+            performSearch();
+        });
+
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                String text = s.toString();
+                if (text.equals(pickedSuggestion)) return;
+                pickedSuggestion = null;
+                SearchSuggestions.query(text, MainActivity.this::showSuggestions);
+            }
+        });
+    }
+
+    private void showSuggestions(String query, List<String> words) {
+        // Drop results for text that has changed since the query ran
+        if (!query.equals(etSearch.getText().toString()) || query.equals(pickedSuggestion)) return;
+        if (words.isEmpty() || !etSearch.hasFocus()) {
+            suggestionPopup.dismiss();
+            return;
+        }
+        suggestionAdapter.clear();
+        suggestionAdapter.addAll(words);
+        if (!suggestionPopup.isShowing()) suggestionPopup.show();
+    }
+
+    private void showHistorySearch() {
+        EditText input = new EditText(this);
+        input.setHint("Words whose meaning mentions…");
+        input.setSingleLine(true);
+        new AlertDialog.Builder(this)
+                .setTitle("Search history")
+                .setView(input)
+                .setPositiveButton("Search", (dialog, which) -> {
+                    String query = input.getText().toString().trim();
+                    if (!query.isEmpty()) HistorySearch.search(this, query, 50, this::showHistoryResults);
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showHistoryResults(String query, List<WordItem> items) {
+        if (isFinishing()) return;
+        AlertDialog.Builder builder = new AlertDialog.Builder(this)
+                .setTitle("\"" + query + "\"")
+                .setPositiveButton("Close", null);
+        if (items.isEmpty()) {
+            builder.setMessage("No history words match.");
+        } else {
+            CharSequence[] rows = new CharSequence[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                rows[i] = items.get(i).getWord() + " — " + items.get(i).getMeaning();
+            }
+            builder.setItems(rows, null);
+        }
+        builder.show();
+    }
+
+    private void showDetails(String word) {
+        if (word.isEmpty()) return;
+        WordFetcher.fetchDetails(this, word, this::onDetailsLoaded);
+    }
+
+    // The outline is already decoded; a section is only decoded when it is opened
+    private void onDetailsLoaded(String word, DictionaryEntry entry) {
+        if (isFinishing()) return;
+        if (entry == null) {
+            Toast.makeText(this, "No details for \"" + word + "\"", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        List<String> sections = entry.partsOfSpeech();
+        CharSequence[] rows = new CharSequence[sections.size() + 1];
+        rows[0] = "Pronunciation";
+        for (int i = 0; i < sections.size(); i++) rows[i + 1] = (i + 1) + ". " + sections.get(i);
+        new AlertDialog.Builder(this)
+                .setTitle(word)
+                .setItems(rows, (dialog, which) -> {
+                    if (which == 0) showPronunciation(entry);
+                    else showMeaning(entry, which - 1);
+                })
+                .setPositiveButton("Close", null)
+                .show();
+    }
+
+    private void showPronunciation(DictionaryEntry entry) {
+        StringBuilder text = new StringBuilder();
+        for (DictionaryEntry.Phonetic p : entry.phonetics()) {
+            if (p.text == null) continue;
+            if (text.indexOf(p.text) >= 0) continue;
+            if (text.length() > 0) text.append("\n");
+            text.append(p.text);
+        }
+        AlertDialog.Builder builder = new AlertDialog.Builder(this)
+                .setTitle(entry.getWord())
+                .setMessage(text.length() > 0 ? text : "No pronunciation listed.")
+                .setPositiveButton("Close", null);
+        if (Pronunciation.audioUrl(entry) != null) {
+            builder.setNeutralButton("Play", (dialog, which) -> playPronunciation(entry.getWord()));
+        }
+        builder.show();
+    }
+
+    private void showMeaning(DictionaryEntry entry, int index) {
+        DictionaryEntry.Meaning meaning = entry.meaning(index);
+        if (meaning == null) return;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < meaning.senses.size(); i++) {
+            DictionaryEntry.Sense sense = meaning.senses.get(i);
+            if (i > 0) text.append("\n\n");
+            text.append(i + 1).append(". ").append(sense.definition);
+            if (sense.example != null) text.append("\n   \"").append(sense.example).append('"');
+            if (!sense.synonyms.isEmpty()) text.append("\n   Synonyms: ").append(TextUtils.join(", ", sense.synonyms));
+            if (!sense.antonyms.isEmpty()) text.append("\n   Antonyms: ").append(TextUtils.join(", ", sense.antonyms));
+        }
+        if (!meaning.synonyms.isEmpty()) text.append("\n\nSynonyms: ").append(TextUtils.join(", ", meaning.synonyms));
+        if (!meaning.antonyms.isEmpty()) text.append("\n\nAntonyms: ").append(TextUtils.join(", ", meaning.antonyms));
+        new AlertDialog.Builder(this)
+                .setTitle(entry.getWord() + " · " + meaning.partOfSpeech)
+                .setMessage(text.length() > 0 ? text : "No definitions listed.")
+                .setPositiveButton("Close", null)
+                .show();
+    }
+
+    private void playPronunciation(String word) {
+        Pronunciation.play(this, word, w -> {
+            if (!isFinishing()) Toast.makeText(this, "No audio for \"" + w + "\"", Toast.LENGTH_SHORT).show();
+        });
+    }
+
+    private void startReview() {
+        ReviewScheduler.next(this, this::showReview);
+    }
+
+    private void showReview(WordItem item, int doc, int dueCount) {
+        if (isFinishing()) return;
+        if (item == null) {
+            Toast.makeText(this, "Nothing due for review", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String title = "Review · " + dueCount + " due";
+        String pos = item.getPos();
+        String example = item.getExample();
+        String answer = item.getMeaning()
+                + (example.isEmpty() || DictionaryParser.NO_EXAMPLE.equals(example) ? "" : "\n\n" + example);
+        new AlertDialog.Builder(this)
+                .setTitle(title)
+                .setMessage(item.getWord() + (pos.isEmpty() ? "" : "\n(" + pos + ")"))
+                .setPositiveButton("Show answer", (d, w) -> new AlertDialog.Builder(this)
+                        .setTitle(item.getWord())
+                        .setMessage(answer)
+                        .setNegativeButton("Again", (d2, w2) -> grade(doc, ReviewScheduler.AGAIN))
+                        .setNeutralButton("Good", (d2, w2) -> grade(doc, ReviewScheduler.GOOD))
+                        .setPositiveButton("Easy", (d2, w2) -> grade(doc, ReviewScheduler.EASY))
+                        .show())
+                .setNegativeButton("Later", null)
+                .show();
+    }
+
+    private void grade(int doc, int quality) {
+        ReviewScheduler.grade(this, doc, quality, this::showReview);
+    }
+
+    private void onTransferDone(boolean success, String message) {
+        if (isFinishing()) return;
+        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+    }
+
+    private void showWordListImport() {
+        EditText input = new EditText(this);
+        input.setHint("Paste words, one per line or separated by commas");
+        input.setMinLines(4);
+        input.setGravity(Gravity.TOP);
+        new AlertDialog.Builder(this)
+                .setTitle("Import word list")
+                .setView(input)
+                .setPositiveButton("Import", (dialog, which) -> {
+                    String text = input.getText().toString();
+                    if (!text.trim().isEmpty()) startWordListImport(listener -> WordListImport.fromText(this, text, listener));
+                })
+                .setNeutralButton("From file…", (dialog, which) -> wordListLauncher.launch(new String[]{"text/*"}))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private interface ImportStarter {
+        void start(WordListImport.Listener listener);
+    }
+
+    private void startWordListImport(ImportStarter starter) {
+        wordListProgress = new AlertDialog.Builder(this)
+                .setTitle("Importing words")
+                .setMessage("Reading the list…")
+                .setCancelable(false)
+                .setNegativeButton("Stop", (dialog, which) -> WordListImport.cancel())
+                .show();
+        starter.start(new WordListImport.Listener() {
+            @Override
+            public void onProgress(BatchLookup.Report soFar) {
+                if (isFinishing() || wordListProgress == null) return;
+                wordListProgress.setMessage(String.format(Locale.ROOT, "%d of %d looked up, %d added\n%.1f words/s",
+                        soFar.done(), soFar.total, soFar.committed, soFar.wordsPerSecond()));
+            }
+
+            @Override
+            public void onDone(BatchLookup.Report report, String error) {
+                if (wordListProgress != null) wordListProgress.dismiss();
+                wordListProgress = null;
+                if (isFinishing()) return;
+                if (report == null) {
+                    Toast.makeText(MainActivity.this, "Import failed: " + error, Toast.LENGTH_LONG).show();
+                    return;
+                }
+                StringBuilder text = new StringBuilder()
+                        .append(report.committed).append(" added to history\n")
+                        .append(report.notFound).append(" not in the dictionary\n")
+                        .append(report.failed).append(" failed after ").append(report.retries).append(" retries\n\n")
+                        .append(String.format(Locale.ROOT, "%d words in %.1f s (%.1f words/s)",
+                                report.done(), report.elapsedMillis / 1000.0, report.wordsPerSecond()));
+                if (!report.failedWords.isEmpty()) {
+                    List<String> shown = report.failedWords.subList(0, Math.min(20, report.failedWords.size()));
+                    text.append("\n\nFailed: ").append(TextUtils.join(", ", shown))
+                            .append(report.failedWords.size() > shown.size() ? ", …" : "");
+                }
+                new AlertDialog.Builder(MainActivity.this)
+                        .setTitle(report.cancelled ? "Import stopped" : "Import finished")
+                        .setMessage(text)
+                        .setPositiveButton("Close", null)
+                        .show();
+            }
+        });
+    }
+
+    private void showReport(String title, String text) {
+        int pad = Math.round(16 * getResources().getDisplayMetrics().density);
+        TextView report = new TextView(this);
+        report.setTypeface(Typeface.MONOSPACE);
+        report.setTextSize(11);
+        report.setPadding(pad, pad, pad, pad);
+        report.setTextIsSelectable(true);
+        report.setText(text);
+        HorizontalScrollView wide = new HorizontalScrollView(this);
+        wide.addView(report);
+        ScrollView scroll = new ScrollView(this);
+        scroll.addView(wide);
+        new AlertDialog.Builder(this)
+                .setTitle(title)
+                .setView(scroll)
+                .setPositiveButton("Close", null)
+                .show();
+    }
+
+    // adb shell dumpsys activity com.example.dailywords/.MainActivity
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        writer.println(prefix + "Network stats:");
+        for (String line : WordFetcher.networkMetrics().report().split("\n")) writer.println(prefix + "  " + line);
+        writer.println(prefix + "Latency budget:");
+        for (String line : RefreshTrace.budget().report().split("\n")) writer.println(prefix + "  " + line);
+    }
+
     private void performSearch() {
+        if (suggestionPopup.isShowing()) suggestionPopup.dismiss();
         String query = etSearch.getText().toString().trim();
         if (!query.isEmpty()) {
             progress.setVisibility(View.VISIBLE);
@@ -177,26 +565,11 @@ public class MainActivity extends AppCompatActivity {
     }
 
 
-    private void loadSavedWord() {
-        SharedPreferences prefs = getSharedPreferences(PREFS, MODE_PRIVATE);
-        tvWord.setText(prefs.getString("word", "No word yet"));
-        tvPartOfSpeech.setText(prefs.getString("pos", ""));
-        tvMeaning.setText(prefs.getString("meaning", ""));
-        tvExample.setText(prefs.getString("example", ""));
-    }
-
-    private void loadHistory() {
-        SharedPreferences prefs = getSharedPreferences(PREFS, MODE_PRIVATE);
-        String json = prefs.getString(HISTORY_KEY, null);
-        if (json != null) {
-            Type type = new TypeToken<ArrayList<WordItem>>() {}.getType();
-            List<WordItem> savedList = gson.fromJson(json, type);
-            if (savedList != null) {
-                historyList.clear();
-                historyList.addAll(savedList);
-                historyAdapter.notifyDataSetChanged();
-            }
-        }
+    private void showCurrentWord(WordItem current) {
+        tvWord.setText(current != null ? current.getWord() : "No word yet");
+        tvPartOfSpeech.setText(current != null ? current.getPos() : "");
+        tvMeaning.setText(current != null ? current.getMeaning() : "");
+        tvExample.setText(current != null ? current.getExample() : "");
     }
 
     private void scheduleRepeatingAlarm() {
@@ -246,8 +619,9 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        try {
-            unregisterReceiver(wordUpdateReceiver);
-        } catch (IllegalArgumentException ignored) {}
+        suggestionPopup.dismiss();
+        WordRepository.get(this).removeObserver(wordObserver);
+        RefreshTrace.setListener(null);
+        Pronunciation.stop();
     }
 }
@@ -0,0 +1,243 @@
+package com.example.dailywords;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+/**
+ * Per-endpoint timing of every call made through the shared client, hooked in as an OkHttp
+ * {@link EventListener.Factory}. Each call gets a small listener that keeps phase start times
+ * in plain fields (OkHttp delivers a call's events sequentially) and, as phases end, records
+ * them into {@link LatencyHistogram}s and counters that are safe to read at any time.
+ *
+ * Phases: DNS lookup, TCP connect (including TLS), TLS handshake, time to first byte (request
+ * headers sent until response headers start), body read, and the whole call.
+ */
+public class NetworkMetrics implements EventListener.Factory {
+
+    public enum Phase { DNS, CONNECT, TLS, TTFB, BODY, TOTAL }
+
+    public static class Endpoint {
+        public final String name;
+        final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong httpErrors = new AtomicLong();
+        final AtomicLong canceled = new AtomicLong();
+        final AtomicLong connectFailures = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+        final AtomicLong bytesSent = new AtomicLong();
+        final AtomicLong bytesReceived = new AtomicLong();
+
+        Endpoint(String name) {
+            this.name = name;
+            for (int i = 0; i < phases.length; i++) phases[i] = new LatencyHistogram();
+        }
+
+        public LatencyHistogram histogram(Phase phase) {
+            return phases[phase.ordinal()];
+        }
+
+        public long failures() {
+            return failures.get();
+        }
+
+        public long retries() {
+            return retries.get();
+        }
+    }
+
+    private final Map<String, Endpoint> byPrefix = new ConcurrentHashMap<>();
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final Endpoint other = new Endpoint("other");
+
+    /** Tags calls to URLs under {@code baseUrl} as {@code name}; register endpoints before the first call. */
+    public NetworkMetrics endpoint(String baseUrl, String name) {
+        Endpoint endpoint = new Endpoint(name);
+        byPrefix.put(baseUrl, endpoint);
+        endpoints.add(endpoint);
+        return this;
+    }
+
+    /** Points a registered endpoint at a new base URL, keeping what it has recorded so far. */
+    public void rebase(String name, String baseUrl) {
+        Endpoint endpoint = get(name);
+        if (endpoint == null || endpoint == other) return;
+        byPrefix.values().removeIf(e -> e == endpoint);
+        byPrefix.put(baseUrl, endpoint);
+    }
+
+    /** Counts an application-level retry of a call to the named endpoint. */
+    public void recordRetry(String name) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.name.equals(name)) endpoint.retries.incrementAndGet();
+        }
+    }
+
+    public Endpoint get(String name) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.name.equals(name)) return endpoint;
+        }
+        return other.name.equals(name) ? other : null;
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        // Longest matching base wins, so two APIs on one host still come apart
+        String url = call.request().url().toString();
+        Endpoint endpoint = other;
+        int matched = -1;
+        for (Map.Entry<String, Endpoint> e : byPrefix.entrySet()) {
+            if (e.getKey().length() > matched && url.startsWith(e.getKey())) {
+                endpoint = e.getValue();
+                matched = e.getKey().length();
+            }
+        }
+        return new CallTimer(endpoint);
+    }
+
+    /** Plain-text table of every endpoint that has seen traffic, times in milliseconds. */
+    public String report() {
+        StringBuilder out = new StringBuilder();
+        List<Endpoint> all = new ArrayList<>(endpoints);
+        all.add(other);
+        for (Endpoint e : all) {
+            if (e.calls.get() == 0) continue;
+            out.append(String.format(Locale.ROOT,
+                    "%s: %d calls, %d failed, %d HTTP errors, %d canceled, %d connect failures, %d retries, %s sent, %s received%n",
+                    e.name, e.calls.get(), e.failures.get(), e.httpErrors.get(), e.canceled.get(), e.connectFailures.get(),
+                    e.retries.get(), formatBytes(e.bytesSent.get()), formatBytes(e.bytesReceived.get())));
+            out.append(String.format(Locale.ROOT, "  %-8s %6s %8s %8s %8s%n", "phase", "n", "p50", "p95", "p99"));
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram h = e.histogram(phase);
+                if (h.count() == 0) continue;
+                out.append(String.format(Locale.ROOT, "  %-8s %6d %8.1f %8.1f %8.1f%n",
+                        phase.name().toLowerCase(Locale.ROOT), h.count(),
+                        h.percentileMs(0.50), h.percentileMs(0.95), h.percentileMs(0.99)));
+            }
+        }
+        return out.length() == 0 ? "No network calls yet\n" : out.toString();
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    private static class CallTimer extends EventListener {
+        private final Endpoint endpoint;
+        private long callStart, dnsStart, connectStart, tlsStart, requestStart, bodyStart;
+        private boolean canceled;
+
+        CallTimer(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void record(Phase phase, long start) {
+            if (start != 0) endpoint.phases[phase.ordinal()].recordNanos(System.nanoTime() - start);
+        }
+
+        @Override
+        public void callStart(Call call) {
+            endpoint.calls.incrementAndGet();
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            record(Phase.DNS, dnsStart);
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            tlsStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            record(Phase.TLS, tlsStart);
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            record(Phase.CONNECT, connectStart);
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                                  Protocol protocol, IOException ioe) {
+            endpoint.connectFailures.incrementAndGet();
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            requestStart = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            endpoint.bytesSent.addAndGet(byteCount);
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            record(Phase.TTFB, requestStart);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            if (response.code() >= 400) endpoint.httpErrors.incrementAndGet();
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            bodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            record(Phase.BODY, bodyStart);
+            endpoint.bytesReceived.addAndGet(byteCount);
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            record(Phase.TOTAL, callStart);
+        }
+
+        @Override
+        public void canceled(Call call) {
+            canceled = true;
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            if (canceled) endpoint.canceled.incrementAndGet();
+            else endpoint.failures.incrementAndGet();
+        }
+    }
+}
@@ -4,13 +4,17 @@ import android.app.*;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
+import android.text.TextUtils;
 import androidx.core.app.NotificationManagerCompat;
 import androidx.core.app.NotificationCompat;
 
 public class NotificationHelper {
     private static final String CHANNEL_ID = "daily_word_channel";
     private static final int NOTIF_ID = 1001;
+    public static final String EXTRA_START_REVIEW = "com.example.dailywords.START_REVIEW";
+    private static final int REVIEW_PREVIEW_WORDS = 3;
 
+    // Reads the review schedule, so call it off the main thread
     public static void showWordRefreshedNotification(Context context) {
         // Create channel if needed
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
@@ -26,9 +30,12 @@ public class NotificationHelper {
             }
         }
 
-        // Intent to open MainActivity when clicked
+        ReviewScheduler.Summary reviews = ReviewScheduler.dueSummary(context, REVIEW_PREVIEW_WORDS);
+
+        // Intent to open MainActivity when clicked (straight into review if words are due)
         Intent intent = new Intent(context, MainActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        if (reviews.count > 0) intent.putExtra(EXTRA_START_REVIEW, true);
         PendingIntent pendingIntent = PendingIntent.getActivity(
                 context, 0, intent,
                 PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
@@ -43,6 +50,15 @@ public class NotificationHelper {
                 .setContentIntent(pendingIntent)
                 .setAutoCancel(true);
 
+        if (reviews.count > 0) {
+            String due = reviews.count + (reviews.count == 1 ? " word" : " words") + " due for review";
+            builder.setContentText("New word of the day · " + due)
+                    .setStyle(new NotificationCompat.BigTextStyle().bigText(
+                            "Your word of the day has refreshed, check it out\n"
+                                    + due + ": " + TextUtils.join(", ", reviews.words)
+                                    + (reviews.count > reviews.words.size() ? ", …" : "")));
+        }
+
         // Show notification
         NotificationManagerCompat managerCompat = NotificationManagerCompat.from(context);
         managerCompat.notify(NOTIF_ID, builder.build());
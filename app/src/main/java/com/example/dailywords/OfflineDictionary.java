@@ -0,0 +1,96 @@
+package com.example.dailywords;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Read-only view of a dictionary pack built by the dictpack tool.
+ *
+ * The whole file is memory-mapped; the sorted offset table is binary searched in place, so a
+ * lookup costs O(log n) page reads and allocates nothing for the index. See DictPackBuilder
+ * for the layout.
+ */
+public class OfflineDictionary {
+    private static final int MAGIC = 0x44574450; // "DWDP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+
+    public OfflineDictionary(FileChannel channel, long offset, long length) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        if (length < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a dictionary pack");
+        }
+        count = buffer.getInt(8);
+        if (HEADER_SIZE + 4L * count > length) throw new IOException("Truncated dictionary pack");
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** The entry for {@code word}, or null if the pack doesn't have it. */
+    public WordItem lookup(String word) {
+        byte[] key = word.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compareKey(entryOffset(mid), key);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return decode(entryOffset(mid));
+        }
+        return null;
+    }
+
+    /** Key of the i-th entry in sorted order. */
+    public String keyAt(int i) {
+        int offset = entryOffset(i);
+        return readString(offset + 2, buffer.getShort(offset) & 0xFFFF);
+    }
+
+    private int entryOffset(int i) {
+        return buffer.getInt(HEADER_SIZE + 4 * i);
+    }
+
+    private int compareKey(int offset, byte[] key) {
+        int length = buffer.getShort(offset) & 0xFFFF;
+        int start = offset + 2;
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int a = buffer.get(start + i) & 0xFF;
+            int b = key[i] & 0xFF;
+            if (a != b) return a - b;
+        }
+        return length - key.length;
+    }
+
+    private WordItem decode(int offset) {
+        int p = offset;
+        int keyLength = buffer.getShort(p) & 0xFFFF;
+        String word = readString(p + 2, keyLength);
+        p += 2 + keyLength;
+        int posLength = buffer.getShort(p) & 0xFFFF;
+        String pos = readString(p + 2, posLength);
+        p += 2 + posLength;
+        int meaningLength = buffer.getInt(p);
+        String meaning = readString(p + 4, meaningLength);
+        p += 4 + meaningLength;
+        int exampleLength = buffer.getInt(p);
+        String example = readString(p + 4, exampleLength);
+        return new WordItem(word, pos, meaning, example.isEmpty() ? "No example" : example, 0);
+    }
+
+    private String readString(int offset, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset);
+        slice.limit(offset + length);
+        return StandardCharsets.UTF_8.decode(slice).toString();
+    }
+}
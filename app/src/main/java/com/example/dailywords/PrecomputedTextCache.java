@@ -0,0 +1,71 @@
+package com.example.dailywords;
+
+import androidx.core.text.PrecomputedTextCompat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Measures text off the main thread with {@link PrecomputedTextCompat} and keeps the results
+ * in an LRU keyed by the text and its metrics params (font, size, style, break strategy).
+ * A lookup for text that is still being measured shares the in-flight task, so prefetching a
+ * page and then binding it costs one measurement.
+ */
+public class PrecomputedTextCache {
+    private static final int MAX_ENTRIES = 256;
+
+    private static final class Key {
+        final String text;
+        final PrecomputedTextCompat.Params params;
+
+        Key(String text, PrecomputedTextCompat.Params params) {
+            this.text = text;
+            this.params = params;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return text.equals(other.text) && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * text.hashCode() + params.hashCode();
+        }
+    }
+
+    // Shared by every cache, so a recreated activity doesn't leave a thread behind
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final LinkedHashMap<Key, FutureTask<PrecomputedTextCompat>> entries =
+            new LinkedHashMap<Key, FutureTask<PrecomputedTextCompat>>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, FutureTask<PrecomputedTextCompat>> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    /** The measured text, done or in progress; hand it to {@code AppCompatTextView.setTextFuture}. */
+    public synchronized Future<PrecomputedTextCompat> get(String text, PrecomputedTextCompat.Params params) {
+        if (text == null) text = "";
+        String measured = text;
+        Key key = new Key(text, params);
+        FutureTask<PrecomputedTextCompat> task = entries.get(key);
+        if (task == null) {
+            task = new FutureTask<>(() -> PrecomputedTextCompat.create(measured, params));
+            entries.put(key, task);
+            executor.execute(task);
+        }
+        return task;
+    }
+
+    /** Starts measuring {@code text} so a later {@link #get} finds it ready. */
+    public void prefetch(String text, PrecomputedTextCompat.Params params) {
+        get(text, params);
+    }
+}
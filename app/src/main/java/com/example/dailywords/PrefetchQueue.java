@@ -0,0 +1,114 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persistent buffer of fully resolved words, so "Get New" and the daily alarm can show a word
+ * without waiting on the network. The buffer is topped back up to {@link #getDepth()} in the
+ * background whenever it drops to {@link #getLowWater()} or below.
+ */
+public class PrefetchQueue {
+    private static final String TAG = "PrefetchQueue";
+    private static final String PREFS = "DailyWordPrefetch";
+    private static final String QUEUE_KEY = "queue";
+    private static final String DEPTH_KEY = "depth";
+    private static final String LOW_WATER_KEY = "low_water";
+
+    public static final int DEFAULT_DEPTH = 5;
+    public static final int DEFAULT_LOW_WATER = 2;
+
+    private static PrefetchQueue instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final Gson gson = new Gson();
+    private final ExecutorService refillExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private List<WordItem> queue;
+
+    public static synchronized PrefetchQueue get(Context context) {
+        if (instance == null) instance = new PrefetchQueue(context.getApplicationContext());
+        return instance;
+    }
+
+    private PrefetchQueue(Context context) {
+        this.context = context;
+        this.prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    public int getDepth() {
+        return prefs.getInt(DEPTH_KEY, DEFAULT_DEPTH);
+    }
+
+    public int getLowWater() {
+        return prefs.getInt(LOW_WATER_KEY, DEFAULT_LOW_WATER);
+    }
+
+    public void configure(int depth, int lowWater) {
+        prefs.edit().putInt(DEPTH_KEY, Math.max(0, depth)).putInt(LOW_WATER_KEY, Math.max(0, lowWater)).apply();
+    }
+
+    /** Next ready word, or null if the buffer is empty. Reads prefs, so call it off the main thread. */
+    public synchronized WordItem poll() {
+        load();
+        if (queue.isEmpty()) return null;
+        WordItem next = queue.remove(0);
+        persist();
+        return next;
+    }
+
+    public synchronized int size() {
+        load();
+        return queue.size();
+    }
+
+    /**
+     * Starts a background top-up if the buffer is at or below the low-water mark. The buffer is
+     * loaded and checked on the refill thread, so this is cheap to call on the main thread.
+     */
+    public void refillIfNeeded() {
+        if (!refilling.compareAndSet(false, true)) return;
+        refillExecutor.execute(() -> {
+            try {
+                int size = size();
+                if (size > getLowWater()) return;
+                int missing = getDepth() - size;
+                if (missing <= 0) return;
+                List<WordItem> ready = WordFetcher.fetchReadyWords(context, missing);
+                for (WordItem item : ready) Pronunciation.prefetch(context, item.getWord());
+                synchronized (this) {
+                    load();
+                    queue.addAll(ready);
+                    persist();
+                }
+                Log.d(TAG, "Prefetched " + ready.size() + " words, queue=" + size());
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+
+    private void load() {
+        if (queue != null) return;
+        String json = prefs.getString(QUEUE_KEY, null);
+        Type type = new TypeToken<ArrayList<WordItem>>(){}.getType();
+        List<WordItem> saved = json != null ? gson.fromJson(json, type) : null;
+        queue = saved != null ? saved : new ArrayList<>();
+    }
+
+    private void persist() {
+        prefs.edit().putString(QUEUE_KEY, gson.toJson(queue)).apply();
+    }
+}
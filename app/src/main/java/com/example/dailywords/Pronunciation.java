@@ -0,0 +1,126 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.MediaPlayer;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pronunciation audio from the phonetics of stored dictionary entries. Clips for the current
+ * and prefetched words are downloaded ahead of time into an {@link AudioCache}, so playback
+ * normally starts from a local file. Playback uses one MediaPlayer, touched on the main thread.
+ */
+public class Pronunciation {
+    private static final String TAG = "Pronunciation";
+    private static final long AUDIO_DISK_BYTES = 16L * 1024 * 1024;
+    private static final long MAX_CLIP_BYTES = 2L * 1024 * 1024;
+
+    public interface Callback {
+        /** Called on the main thread when there is nothing to play. */
+        void onUnavailable(String word);
+    }
+
+    // Prefetches queue up on their own thread so a tap on play never waits behind them
+    private static final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+    private static final ExecutorService playExecutor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static AudioCache cache;
+    private static MediaPlayer player;
+
+    /** Downloads the word's clip in the background if its entry has one; never hits the dictionary. */
+    public static void prefetch(Context context, String word) {
+        Context app = context.getApplicationContext();
+        prefetchExecutor.execute(() -> {
+            DictionaryEntry entry = WordFetcher.entryStore(app).get(word);
+            String url = entry != null ? audioUrl(entry) : null;
+            if (url == null) return;
+            try {
+                cache(app).fetch(WordFetcher.client(), url);
+            } catch (IOException e) {
+                Log.w(TAG, "Prefetch of " + word + " failed: " + e.getMessage());
+            }
+        });
+    }
+
+    public static void play(Context context, String word, Callback callback) {
+        if (word == null || word.isEmpty()) return;
+        Context app = context.getApplicationContext();
+        playExecutor.execute(() -> {
+            File clip = null;
+            DictionaryEntry entry = WordFetcher.loadEntry(app, word);
+            String url = entry != null ? audioUrl(entry) : null;
+            if (url != null) {
+                try {
+                    clip = cache(app).fetch(WordFetcher.client(), url);
+                } catch (IOException e) {
+                    Log.w(TAG, "Audio for " + word + " unavailable: " + e.getMessage());
+                }
+            }
+            File file = clip;
+            mainHandler.post(() -> {
+                if (file != null) start(file);
+                else callback.onUnavailable(word);
+            });
+        });
+    }
+
+    /** Stops and releases the player, if playing. Main thread only. */
+    public static void stop() {
+        if (player == null) return;
+        player.release();
+        player = null;
+    }
+
+    // A US recording if there is one, as the dictionary lists it first only sometimes
+    static String audioUrl(DictionaryEntry entry) {
+        String first = null;
+        for (DictionaryEntry.Phonetic p : entry.phonetics()) {
+            if (p.audio == null) continue;
+            if (p.audio.endsWith("-us.mp3")) return p.audio;
+            if (first == null) first = p.audio;
+        }
+        return first;
+    }
+
+    private static void start(File file) {
+        stop();
+        MediaPlayer mp = new MediaPlayer();
+        player = mp;
+        mp.setAudioAttributes(new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_MEDIA)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                .build());
+        mp.setOnPreparedListener(MediaPlayer::start);
+        mp.setOnCompletionListener(done -> {
+            if (player == done) stop();
+        });
+        mp.setOnErrorListener((failed, what, extra) -> {
+            Log.w(TAG, "Playback error " + what + "/" + extra + " for " + file.getName());
+            cache.evict(file); // most likely a bad download; fetch it again next time
+            if (player == failed) stop();
+            return true;
+        });
+        try {
+            mp.setDataSource(file.getPath());
+            mp.prepareAsync();
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot play " + file.getName() + ": " + e.getMessage());
+            stop();
+        }
+    }
+
+    static synchronized AudioCache cache(Context context) {
+        if (cache == null) {
+            File dir = new File(context.getApplicationContext().getCacheDir(), "audio");
+            cache = new AudioCache(dir, AUDIO_DISK_BYTES, MAX_CLIP_BYTES);
+        }
+        return cache;
+    }
+}
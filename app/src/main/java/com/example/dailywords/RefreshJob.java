@@ -0,0 +1,274 @@
+package com.example.dailywords;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.text.TextUtils;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The word refresh as a resumable background job with two stages: pick a ready word from the
+ * prefetch buffer or a batch of candidates from the random-word API, then race the candidates'
+ * dictionary lookups and save the first one that has a real definition.
+ *
+ * Stages run on a small fixed pool and the job's progress is committed to its own preferences
+ * file after every step, so a refresh cut short by process death resumes at the stage it
+ * reached instead of starting over. Transient failures are retried with jittered exponential
+ * backoff while the run's time budget lasts; past that the job parks itself behind an alarm
+ * that brings {@link WordReceiver} back for the next attempt.
+ */
+public class RefreshJob {
+    private static final String TAG = "RefreshJob";
+    public static final String ACTION_RESUME = "com.example.dailywords.RESUME_REFRESH";
+
+    private static final String PREFS = "DailyWordRefreshJob";
+    private static final String STAGE_KEY = "stage";
+    private static final String CANDIDATES_KEY = "candidates";
+    private static final String ATTEMPT_KEY = "attempt";
+    private static final String NOTIFY_KEY = "notify";
+    private static final String STARTED_KEY = "started_at";
+    private static final String CANDIDATE_COUNT_KEY = "candidate_count";
+    private static final String CONCURRENCY_KEY = "concurrency";
+    private static final String RACE_BUDGET_KEY = "race_budget_ms";
+
+    public static final int DEFAULT_CANDIDATES = 6;
+    public static final int DEFAULT_CONCURRENCY = 3;
+    public static final long DEFAULT_RACE_BUDGET_MS = 6_000;
+
+    private static final int STAGE_IDLE = 0;
+    private static final int STAGE_PICK = 1;
+    private static final int STAGE_RESOLVE = 2;
+
+    // One run has to fit inside the ~10 s a goAsync() receiver is given
+    static final long RUN_BUDGET_MS = 9_000;
+    // Not worth starting a request with less time than this left
+    private static final long MIN_CALL_MS = 2_000;
+    // Resume alarm set while running, in case the process dies before the job parks or finishes
+    private static final long WATCHDOG_MS = 60_000;
+    // A job left pending this long is dropped; the next daily alarm starts a fresh one
+    private static final long MAX_JOB_AGE_MS = 12L * 60 * 60 * 1000;
+    private static final int RESUME_REQUEST_CODE = 1;
+
+    private static final ScheduledThreadPoolExecutor workers = new ScheduledThreadPoolExecutor(2);
+    private static final Backoff backoff = new Backoff(1_000, 10 * 60_000, 6);
+
+    static {
+        workers.setKeepAliveTime(30, TimeUnit.SECONDS);
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final long deadline;
+    private final int traceId;
+    private final Runnable onDone;
+
+    /**
+     * Runs the pending job, or a new one unless {@code resumeOnly}. Its stages are traced as
+     * refresh {@code traceId}. {@code onDone} runs once on a worker thread when this run ends,
+     * whether the job finished or parked.
+     */
+    static void start(Context context, boolean resumeOnly, int traceId, Runnable onDone) {
+        RefreshJob job = new RefreshJob(context, traceId, onDone);
+        workers.execute(() -> job.begin(resumeOnly));
+    }
+
+    private RefreshJob(Context context, int traceId, Runnable onDone) {
+        this.context = context;
+        this.prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        this.deadline = System.currentTimeMillis() + RUN_BUDGET_MS;
+        this.traceId = traceId;
+        this.onDone = onDone;
+    }
+
+    /**
+     * How many candidates a refresh draws, how many lookups run at once and how long the race
+     * may take before the batch counts as a failed attempt.
+     */
+    public static void configure(Context context, int candidates, int concurrency, long raceBudgetMs) {
+        context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit()
+                .putInt(CANDIDATE_COUNT_KEY, Math.max(1, candidates))
+                .putInt(CONCURRENCY_KEY, Math.max(1, concurrency))
+                .putLong(RACE_BUDGET_KEY, Math.max(MIN_CALL_MS, raceBudgetMs))
+                .apply();
+    }
+
+    private void begin(boolean resumeOnly) {
+        try {
+            resume(resumeOnly);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Refresh could not start", e);
+            finish();
+        }
+    }
+
+    private void resume(boolean resumeOnly) {
+        long now = System.currentTimeMillis();
+        int stage = prefs.getInt(STAGE_KEY, STAGE_IDLE);
+        if (stage != STAGE_IDLE && now - prefs.getLong(STARTED_KEY, 0) > MAX_JOB_AGE_MS) {
+            Log.w(TAG, "Dropping stale refresh at stage " + stage);
+            stage = STAGE_IDLE;
+        }
+        if (stage == STAGE_IDLE) {
+            if (resumeOnly) {
+                finish();
+                return;
+            }
+            prefs.edit()
+                    .putInt(STAGE_KEY, STAGE_PICK)
+                    .remove(CANDIDATES_KEY)
+                    .putInt(ATTEMPT_KEY, 0)
+                    .putBoolean(NOTIFY_KEY, WordFetcher.refreshNotify)
+                    .putLong(STARTED_KEY, now)
+                    .commit();
+        } else {
+            Log.d(TAG, "Resuming refresh at stage " + stage);
+        }
+        setResumeAlarm(now + WATCHDOG_MS);
+        step();
+    }
+
+    private void step() {
+        int stage = prefs.getInt(STAGE_KEY, STAGE_IDLE);
+        try {
+            if (stage == STAGE_PICK) {
+                WordItem ready;
+                try (RefreshTrace.Span span = RefreshTrace.section(traceId, RefreshTrace.PICK)) {
+                    ready = PrefetchQueue.get(context).poll();
+                    // A buffered word may have been served since it was prefetched
+                    while (ready != null && SeenWords.contains(context, ready.getWord())) {
+                        ready = PrefetchQueue.get(context).poll();
+                    }
+                    if (ready == null) {
+                        int count = prefs.getInt(CANDIDATE_COUNT_KEY, DEFAULT_CANDIDATES);
+                        List<String> drawn;
+                        try (RefreshTrace.Span call = RefreshTrace.section(traceId, RefreshTrace.RANDOM_WORD)) {
+                            drawn = WordFetcher.fetchRandomWords(count, callTimeout());
+                        }
+                        List<String> words = new ArrayList<>();
+                        for (String word : drawn) {
+                            if (!SeenWords.contains(context, word)) words.add(word);
+                        }
+                        if (words.isEmpty()) throw new LocalFailure("No unseen word in random word response");
+                        prefs.edit().putInt(STAGE_KEY, STAGE_RESOLVE).putString(CANDIDATES_KEY, TextUtils.join(",", words)).commit();
+                    }
+                }
+                if (ready == null) {
+                    workers.execute(this::step);
+                    return;
+                }
+                save(ready);
+            } else if (stage == STAGE_RESOLVE) {
+                List<String> candidates = Arrays.asList(TextUtils.split(prefs.getString(CANDIDATES_KEY, ""), ","));
+                // Killed between saving and committing the stage: the winner is already in place
+                WordItem current = WordRepository.get(context).current();
+                if (current == null || !candidates.contains(current.getWord())) {
+                    long timeout = Math.min(callTimeout(), prefs.getLong(RACE_BUDGET_KEY, DEFAULT_RACE_BUDGET_MS));
+                    int concurrency = prefs.getInt(CONCURRENCY_KEY, DEFAULT_CONCURRENCY);
+                    WordItem winner;
+                    try (RefreshTrace.Span span = RefreshTrace.section(traceId, RefreshTrace.RESOLVE)) {
+                        winner = WordFetcher.raceCandidates(context, candidates, concurrency, timeout, traceId);
+                    }
+                    if (winner == null) {
+                        // Nothing in this batch is in the dictionary, which is an answer rather than
+                        // a failure: draw a fresh batch straight away, without using up an attempt
+                        Log.d(TAG, "No candidate has a definition; drawing again");
+                        prefs.edit().putInt(STAGE_KEY, STAGE_PICK).remove(CANDIDATES_KEY).commit();
+                        workers.execute(this::step);
+                        return;
+                    }
+                    save(winner);
+                }
+            }
+            finish();
+        } catch (IOException e) {
+            retry(stage, e);
+        } catch (RuntimeException e) {
+            // A storage failure (e.g. HistoryStore's IllegalStateException) must still end this run,
+            // or the receiver never finishes and every later refresh queues up behind this one
+            Log.e(TAG, "Stage " + stage + " failed", e);
+            retry(stage, new LocalFailure(e));
+        }
+    }
+
+    /** A failure on the device rather than the network; retried, but not counted as a network retry. */
+    private static class LocalFailure extends IOException {
+        LocalFailure(String message) {
+            super(message);
+        }
+
+        LocalFailure(Throwable cause) {
+            super(cause.toString(), cause);
+        }
+    }
+
+    private long callTimeout() throws IOException {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining < MIN_CALL_MS) throw new LocalFailure("Run budget used up");
+        return remaining;
+    }
+
+    private void retry(int stage, IOException e) {
+        int attempt = prefs.getInt(ATTEMPT_KEY, 0) + 1;
+        if (!backoff.canRetry(attempt)) {
+            Log.e(TAG, "Refresh gave up at stage " + stage + ": " + e.getMessage());
+            finish();
+            return;
+        }
+        long delay = backoff.delayMillis(attempt);
+        if (e instanceof CircuitBreaker.OpenException) {
+            delay = Math.max(delay, ((CircuitBreaker.OpenException) e).retryInMillis);
+        }
+        prefs.edit().putInt(ATTEMPT_KEY, attempt).commit();
+        if (!(e instanceof LocalFailure)) {
+            WordFetcher.networkMetrics().recordRetry(
+                    stage == STAGE_PICK ? WordFetcher.ENDPOINT_RANDOM_WORD : WordFetcher.ENDPOINT_DICTIONARY);
+        }
+        Log.w(TAG, "Stage " + stage + " failed (" + e.getMessage() + "), retry " + attempt + " in " + delay + " ms");
+
+        if (System.currentTimeMillis() + delay + MIN_CALL_MS <= deadline) {
+            workers.schedule(this::step, delay, TimeUnit.MILLISECONDS);
+        } else {
+            setResumeAlarm(System.currentTimeMillis() + delay);
+            onDone.run();
+        }
+    }
+
+    private void save(WordItem item) {
+        boolean notify = prefs.getBoolean(NOTIFY_KEY, false) || WordFetcher.refreshNotify;
+        WordFetcher.saveWord(context, item.getWord(), item.getPos(), item.getMeaning(), item.getExample(), notify, traceId);
+    }
+
+    private void finish() {
+        try {
+            prefs.edit().putInt(STAGE_KEY, STAGE_IDLE).remove(CANDIDATES_KEY).remove(ATTEMPT_KEY).remove(NOTIFY_KEY).commit();
+            AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+            alarmManager.cancel(resumeIntent());
+            PrefetchQueue.get(context).refillIfNeeded();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Refresh cleanup failed", e);
+        } finally {
+            onDone.run();
+        }
+    }
+
+    private void setResumeAlarm(long at) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        alarmManager.set(AlarmManager.RTC_WAKEUP, at, resumeIntent());
+    }
+
+    private PendingIntent resumeIntent() {
+        Intent intent = new Intent(context, WordReceiver.class).setAction(ACTION_RESUME);
+        return PendingIntent.getBroadcast(context, RESUME_REQUEST_CODE, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.dailywords;
+
+import android.os.Build;
+import android.os.Trace;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trace instrumentation for the refresh path, visible in Perfetto / systrace. Each refresh gets
+ * an id; an async "DW refresh" slice spans it from trigger to the last render, and every stage
+ * inside it is named {@code DW#<id> <stage>} so slices on different threads line up. Stages on
+ * one thread are plain sections; stages that end on another thread are async slices (API 29+;
+ * older devices still get the timings). Stage times also feed a {@link LatencyBudget} that logs,
+ * and keeps for the debug dialog, any stage that ran over.
+ *
+ * The refresh path passes its id along explicitly, so a search lookup or import that happens
+ * to overlap a refresh is never billed to it; such work is traced without an id and not
+ * budgeted. Refreshes are single-flight, so rendering, which observers do without knowing
+ * what caused it, can still use "the current refresh".
+ */
+public class RefreshTrace {
+    private static final String TAG = "RefreshTrace";
+    private static final String REFRESH = "DW refresh";
+
+    public static final String PICK = "pick";
+    public static final String RANDOM_WORD = "random-word";
+    public static final String RESOLVE = "resolve";
+    public static final String PARSE = "parse";
+    public static final String PERSIST = "persist";
+    public static final String NOTIFY = "notify";
+    public static final String PUBLISH = "publish";
+    public static final String RENDER = "render";
+    public static final String RECEIVER = "receiver";
+
+    private static final LatencyBudget budget = new LatencyBudget(20)
+            .budget(PICK, 2_500)
+            .budget(RANDOM_WORD, 2_000)
+            .budget(RESOLVE, 3_000)
+            .budget(PARSE, 50)
+            .budget(PERSIST, 100)
+            .budget(NOTIFY, 150)
+            .budget(PUBLISH, 100) // posted to main until delivered: main-thread queueing
+            .budget(RENDER, 16) // one frame
+            .budget(LatencyBudget.TOTAL, 5_000);
+
+    /** Told on the main thread about every refresh that ran over a budget. */
+    public interface Listener {
+        void onOverBudget(LatencyBudget.Refresh refresh, String overruns);
+    }
+
+    private static final AtomicInteger nextId = new AtomicInteger();
+    // Async slices with the same name must not share a cookie, so each gets its own
+    private static final AtomicInteger nextCookie = new AtomicInteger();
+    private static volatile int current;
+    private static volatile Listener listener;
+
+    /** One timed stage; close it on the thread noted by the factory that made it. */
+    public static final class Span implements AutoCloseable {
+        private final int id;
+        private final String stage;
+        private final int cookie; // 0 for a plain section
+        private final long startNanos = System.nanoTime();
+
+        private Span(int id, String stage, boolean async) {
+            this.id = id;
+            this.stage = stage;
+            this.cookie = async ? nextCookie.incrementAndGet() : 0;
+            if (!async) Trace.beginSection(name(id, stage));
+            else if (Build.VERSION.SDK_INT >= 29) Trace.beginAsyncSection(name(id, stage), cookie);
+        }
+
+        @Override
+        public void close() {
+            if (cookie == 0) Trace.endSection();
+            else if (Build.VERSION.SDK_INT >= 29) Trace.endAsyncSection(name(id, stage), cookie);
+            if (id != 0) budget.record(id, stage, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    /** Opens a refresh; {@code trigger} says what started it (manual, alarm, resume). */
+    static int start(String trigger) {
+        int id = nextId.incrementAndGet();
+        current = id;
+        budget.open(id, trigger, System.nanoTime());
+        if (Build.VERSION.SDK_INT >= 29) Trace.beginAsyncSection(REFRESH, id);
+        return id;
+    }
+
+    /** Closes refresh {@code id}. Called on the main thread once everything it shows is on screen. */
+    static void finish(int id) {
+        if (current == id) current = 0;
+        if (Build.VERSION.SDK_INT >= 29) Trace.endAsyncSection(REFRESH, id);
+        LatencyBudget.Refresh refresh = budget.close(id, System.nanoTime());
+        if (refresh == null || !refresh.isOverBudget()) return;
+        String overruns = budget.describeOverruns(refresh);
+        Log.w(TAG, "Refresh #" + id + " (" + refresh.trigger + ") over budget:\n" + overruns);
+        Listener l = listener;
+        if (l != null) l.onOverBudget(refresh, overruns);
+    }
+
+    public static void setListener(Listener l) {
+        listener = l;
+    }
+
+    /** The refresh in flight, or 0. */
+    static int current() {
+        return current;
+    }
+
+    /** A stage that begins and ends on the calling thread, attributed to the current refresh. */
+    public static Span section(String stage) {
+        return new Span(current, stage, false);
+    }
+
+    /** As {@link #section(String)}, for a refresh id passed along explicitly; 0 for none. */
+    public static Span section(int id, String stage) {
+        return new Span(id, stage, false);
+    }
+
+    /** A stage that may end on another thread, attributed to the current refresh. */
+    public static Span async(String stage) {
+        return new Span(current, stage, true);
+    }
+
+    /** As {@link #async(String)}, for a refresh id captured earlier. */
+    public static Span async(int id, String stage) {
+        return new Span(id, stage, true);
+    }
+
+    static LatencyBudget budget() {
+        return budget;
+    }
+
+    private static String name(int id, String stage) {
+        return id != 0 ? "DW#" + id + " " + stage : "DW " + stage;
+    }
+}
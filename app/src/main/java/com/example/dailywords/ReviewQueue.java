@@ -0,0 +1,340 @@
+package com.example.dailywords;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Spaced-repetition schedule for history entries: a binary min-heap keyed on due time, kept
+ * in memory and mirrored slot-for-slot in a file. Every operation touches O(log n) slots and
+ * writes back only those, so the file never needs rewriting as a whole.
+ *
+ * File layout: magic "DWRQ", version, entry count, number of history entries covered, then
+ * one fixed 24-byte slot per heap position: due time, history index, interval in days, ease
+ * (in thousandths) and successful repetitions. The heap order is checked on load and repaired
+ * if a write was torn; a header claiming more entries than history holds means the file isn't
+ * to be trusted at all, and the schedule starts over.
+ *
+ * Grading follows SM-2: a failed recall restarts the word at one day, successful ones go 1 day,
+ * 6 days, then the previous interval times the ease, which moves with each grade.
+ */
+public class ReviewQueue {
+    private static final int MAGIC = 0x44575251; // "DWRQ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 24;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    public static final int DEFAULT_EASE = 2500;
+    private static final int MIN_EASE = 1300;
+
+    /** A scheduled history entry. */
+    public static class Item {
+        public final int doc;
+        public final long due;
+        public final int intervalDays;
+        public final int ease;
+        public final int repetitions;
+
+        Item(int doc, long due, int intervalDays, int ease, int repetitions) {
+            this.doc = doc;
+            this.due = due;
+            this.intervalDays = intervalDays;
+            this.ease = ease;
+            this.repetitions = repetitions;
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+    private long[] due = new long[64];
+    private int[] doc = new int[64];
+    private int[] interval = new int[64];
+    private int[] ease = new int[64];
+    private int[] reps = new int[64];
+    private int[] position = new int[64]; // heap position of each doc, -1 if not scheduled
+    private int size;
+    private int coveredDocs;
+
+    /** Opens the schedule for a history of {@code historySize} entries. */
+    public ReviewQueue(File path, int historySize) throws IOException {
+        Arrays.fill(position, -1);
+        boolean intact = path.isFile() && path.length() >= HEADER_SIZE && load(path, historySize);
+        file = new RandomAccessFile(path, "rw");
+        if (!intact) rewrite();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** History entries below this index have been scheduled. */
+    public synchronized int coveredDocs() {
+        return coveredDocs;
+    }
+
+    /** Schedules history entry {@code doc} for its first review; entries must arrive in order. */
+    public synchronized void add(int doc, long due) throws IOException {
+        if (doc < coveredDocs) return;
+        ensureCapacity(size + 1, doc + 1);
+        int i = size++;
+        set(i, due, doc, 1, DEFAULT_EASE, 0);
+        coveredDocs = doc + 1;
+        writeHeader();
+        writeSlot(siftUp(i));
+    }
+
+    /**
+     * Schedules a run of history entries starting at {@code firstDoc} in one pass: the heap is
+     * rebuilt in memory and the file rewritten once, which beats per-entry adds for catch-up.
+     */
+    public synchronized void addAll(int firstDoc, long[] dueTimes) throws IOException {
+        int skip = Math.max(0, coveredDocs - firstDoc);
+        if (skip >= dueTimes.length) return;
+        int lastDoc = firstDoc + dueTimes.length - 1;
+        ensureCapacity(size + dueTimes.length - skip, lastDoc + 1);
+        for (int k = skip; k < dueTimes.length; k++) set(size++, dueTimes[k], firstDoc + k, 1, DEFAULT_EASE, 0);
+        coveredDocs = lastDoc + 1;
+        for (int i = size / 2 - 1; i >= 0; i--) heapify(i);
+        rewrite();
+    }
+
+    /** The entry due soonest, or null if nothing is scheduled. */
+    public synchronized Item peek() {
+        return size == 0 ? null : item(0);
+    }
+
+    public synchronized Item get(int doc) {
+        int i = doc < position.length ? position[doc] : -1;
+        return i < 0 ? null : item(i);
+    }
+
+    /** Entries due at or before {@code now}, soonest first, at most {@code limit}. */
+    public synchronized List<Item> due(long now, int limit) {
+        // Best-first walk from the root: O(limit log limit), whatever the heap size
+        List<Item> out = new ArrayList<>();
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> Long.compare(due[a], due[b]));
+        if (size > 0 && due[0] <= now) frontier.add(0);
+        while (!frontier.isEmpty() && out.size() < limit) {
+            int i = frontier.poll();
+            out.add(item(i));
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                if (due[child] <= now) frontier.add(child);
+            }
+        }
+        return out;
+    }
+
+    /** How many entries are due at {@code now}, counting no further than {@code cap}. */
+    public synchronized int countDue(long now, int cap) {
+        // Subtrees whose root isn't due hold nothing due either
+        int count = 0;
+        int[] stack = new int[64];
+        int top = 0;
+        if (size > 0 && due[0] <= now) stack[top++] = 0;
+        while (top > 0 && count < cap) {
+            int i = stack[--top];
+            count++;
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                if (due[child] > now) continue;
+                if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                stack[top++] = child;
+            }
+        }
+        return count;
+    }
+
+    /** Records a review of {@code doc} with SM-2 quality 0-5 and reschedules it. */
+    public synchronized Item grade(int doc, int quality, long now) throws IOException {
+        int i = doc < position.length ? position[doc] : -1;
+        if (i < 0) return null;
+        int q = Math.max(0, Math.min(5, quality));
+        int newReps, newInterval;
+        if (q < 3) {
+            newReps = 0;
+            newInterval = 1;
+        } else {
+            newReps = reps[i] + 1;
+            if (newReps == 1) newInterval = 1;
+            else if (newReps == 2) newInterval = 6;
+            else newInterval = (int) Math.min(36500, Math.round(interval[i] * ease[i] / 1000.0));
+        }
+        // EF' = EF + (0.1 - (5 - q) * (0.08 + (5 - q) * 0.02)), in thousandths
+        int newEase = Math.max(MIN_EASE, ease[i] + 100 - (5 - q) * (80 + (5 - q) * 20));
+        set(i, now + newInterval * DAY_MS, doc, newInterval, newEase, newReps);
+        int moved = siftDown(i);
+        if (moved == i) moved = siftUp(i);
+        writeSlot(moved);
+        return item(moved);
+    }
+
+    /** Drops every entry, e.g. after history itself was rebuilt. */
+    public synchronized void clear() throws IOException {
+        Arrays.fill(position, -1);
+        size = 0;
+        coveredDocs = 0;
+        file.setLength(HEADER_SIZE);
+        writeHeader();
+    }
+
+    public synchronized void close() throws IOException {
+        file.close();
+    }
+
+    private Item item(int i) {
+        return new Item(doc[i], due[i], interval[i], ease[i], reps[i]);
+    }
+
+    private void set(int i, long dueAt, int d, int intervalDays, int easeValue, int repetitions) {
+        due[i] = dueAt;
+        doc[i] = d;
+        interval[i] = intervalDays;
+        ease[i] = easeValue;
+        reps[i] = repetitions;
+        position[d] = i;
+    }
+
+    // Both sifts write every slot they displace and return the entry's final position,
+    // which the caller writes.
+    private int siftUp(int i) throws IOException {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (due[parent] <= due[i]) break;
+            swap(i, parent);
+            writeSlot(i);
+            i = parent;
+        }
+        return i;
+    }
+
+    private int siftDown(int i) throws IOException {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1, right = left + 1;
+            if (left < size && due[left] < due[smallest]) smallest = left;
+            if (right < size && due[right] < due[smallest]) smallest = right;
+            if (smallest == i) return i;
+            swap(i, smallest);
+            writeSlot(i);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long d = due[a]; due[a] = due[b]; due[b] = d;
+        int t = doc[a]; doc[a] = doc[b]; doc[b] = t;
+        t = interval[a]; interval[a] = interval[b]; interval[b] = t;
+        t = ease[a]; ease[a] = ease[b]; ease[b] = t;
+        t = reps[a]; reps[a] = reps[b]; reps[b] = t;
+        position[doc[a]] = a;
+        position[doc[b]] = b;
+    }
+
+    private void ensureCapacity(int slots, int docs) {
+        if (slots > due.length) {
+            int n = Math.max(slots, due.length * 2);
+            due = Arrays.copyOf(due, n);
+            doc = Arrays.copyOf(doc, n);
+            interval = Arrays.copyOf(interval, n);
+            ease = Arrays.copyOf(ease, n);
+            reps = Arrays.copyOf(reps, n);
+        }
+        if (docs > position.length) {
+            int old = position.length;
+            position = Arrays.copyOf(position, Math.max(docs, old * 2));
+            Arrays.fill(position, old, position.length, -1);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        file.seek(0);
+        file.writeInt(MAGIC);
+        file.writeInt(VERSION);
+        file.writeInt(size);
+        file.writeInt(coveredDocs);
+    }
+
+    private void writeSlot(int i) throws IOException {
+        slot.clear();
+        slot.putLong(due[i]).putInt(doc[i]).putInt(interval[i]).putInt(ease[i]).putInt(reps[i]);
+        file.seek(HEADER_SIZE + (long) i * SLOT_SIZE);
+        file.write(slot.array());
+    }
+
+    // Writes header and every slot in one go, after a repair or for a new file
+    private void rewrite() throws IOException {
+        ByteBuffer all = ByteBuffer.allocate(HEADER_SIZE + size * SLOT_SIZE);
+        all.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(coveredDocs);
+        for (int i = 0; i < size; i++) {
+            all.putLong(due[i]).putInt(doc[i]).putInt(interval[i]).putInt(ease[i]).putInt(reps[i]);
+        }
+        file.seek(0);
+        file.write(all.array());
+        file.setLength(all.capacity());
+    }
+
+    /** Returns false if the file needed repair (or wasn't ours) and must be rewritten. */
+    private boolean load(File path, int historySize) throws IOException {
+        boolean intact = true;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return false;
+            int count = in.readInt();
+            int covered = in.readInt();
+            // Checked before anything is sized from it; past the end of history the header is garbage
+            if (covered < 0 || covered > historySize) return false;
+            // Trust only slots that are fully on disk
+            count = (int) Math.max(0, Math.min(count, (path.length() - HEADER_SIZE) / SLOT_SIZE));
+            ensureCapacity(count, covered);
+            for (int i = 0; i < count; i++) {
+                long d = in.readLong();
+                int entry = in.readInt();
+                int iv = in.readInt();
+                int e = in.readInt();
+                int r = in.readInt();
+                if (entry < 0 || entry >= covered || position[entry] >= 0) {
+                    intact = false; // torn or duplicate slot
+                    continue;
+                }
+                ensureCapacity(size + 1, entry + 1);
+                set(size, d, entry, iv, e, r);
+                if (size > 0 && due[(size - 1) / 2] > d) intact = false;
+                size++;
+            }
+            coveredDocs = covered;
+        }
+        if (size < coveredDocs) {
+            // A slot was lost mid-write; reschedule the missing entries for now
+            for (int d = 0; d < coveredDocs; d++) {
+                if (position[d] >= 0) continue;
+                ensureCapacity(size + 1, d + 1);
+                set(size++, 0, d, 1, DEFAULT_EASE, 0);
+                intact = false;
+            }
+        }
+        if (!intact) {
+            for (int i = size / 2 - 1; i >= 0; i--) heapify(i);
+        }
+        return intact;
+    }
+
+    // In-memory sift for bulk rebuilds; the caller rewrites the file afterwards
+    private void heapify(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1, right = left + 1;
+            if (left < size && due[left] < due[smallest]) smallest = left;
+            if (right < size && due[right] < due[smallest]) smallest = right;
+            if (smallest == i) return;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Review mode over history, scheduled by the {@link ReviewQueue} in the app's files dir.
+ * Every word that enters history comes up for its first review a day after it was replaced;
+ * the queue catches up with the history log on open and after every append, like the search
+ * index does. Only the entries actually shown are read back from history.
+ */
+public class ReviewScheduler {
+    private static final String TAG = "ReviewScheduler";
+    private static final String FILE_NAME = "review.heap";
+    private static final long FIRST_REVIEW_MS = 24L * 60 * 60 * 1000;
+    private static final int CATCH_UP_BATCH = 500;
+    private static final int COUNT_CAP = 999;
+
+    // SM-2 qualities behind the review buttons
+    public static final int AGAIN = 1;
+    public static final int GOOD = 4;
+    public static final int EASY = 5;
+
+    public interface Callback {
+        /** {@code item} is null when nothing is due. */
+        void onNext(WordItem item, int doc, int dueCount);
+    }
+
+    /** What the notification shows: how many are due and the first few words. */
+    public static class Summary {
+        public final int count;
+        public final List<String> words;
+
+        Summary(int count, List<String> words) {
+            this.count = count;
+            this.words = words;
+        }
+    }
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static ReviewQueue queue;
+
+    /** Called after an entry has been appended to the history log. */
+    public static void onHistoryAppended(Context context) {
+        Context app = context.getApplicationContext();
+        executor.execute(() -> {
+            try {
+                queue(app);
+            } catch (IOException e) {
+                Log.e(TAG, "Schedule update failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Delivers the most overdue word on the main thread. */
+    public static void next(Context context, Callback callback) {
+        Context app = context.getApplicationContext();
+        executor.execute(() -> loadNext(app, callback));
+    }
+
+    /** Records a review with one of {@link #AGAIN}, {@link #GOOD}, {@link #EASY}, then delivers the next word. */
+    public static void grade(Context context, int doc, int quality, Callback next) {
+        Context app = context.getApplicationContext();
+        executor.execute(() -> {
+            try {
+                queue(app).grade(doc, quality, System.currentTimeMillis());
+            } catch (IOException e) {
+                Log.e(TAG, "Grading failed: " + e.getMessage());
+            }
+            loadNext(app, next);
+        });
+    }
+
+    /** Blocking: the due reviews for a notification. */
+    static Summary dueSummary(Context context, int maxWords) {
+        List<String> words = new ArrayList<>();
+        try {
+            ReviewQueue q = queue(context.getApplicationContext());
+            long now = System.currentTimeMillis();
+            HistoryLog history = HistoryStore.get(context);
+            for (ReviewQueue.Item item : q.due(now, maxWords)) words.add(history.get(item.doc).getWord());
+            return new Summary(q.countDue(now, COUNT_CAP), words);
+        } catch (IOException e) {
+            Log.e(TAG, "Due summary failed: " + e.getMessage());
+            return new Summary(0, words);
+        }
+    }
+
+    private static void loadNext(Context context, Callback callback) {
+        WordItem item = null;
+        int doc = -1, count = 0;
+        try {
+            ReviewQueue q = queue(context);
+            long now = System.currentTimeMillis();
+            ReviewQueue.Item next = q.peek();
+            if (next != null && next.due <= now) {
+                doc = next.doc;
+                item = HistoryStore.get(context).get(doc);
+                count = q.countDue(now, COUNT_CAP);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Loading review failed: " + e.getMessage());
+        }
+        WordItem shown = item;
+        int shownDoc = doc, dueCount = count;
+        mainHandler.post(() -> callback.onNext(shown, shownDoc, dueCount));
+    }
+
+    // Opens the queue and schedules history entries it hasn't seen yet
+    private static synchronized ReviewQueue queue(Context context) throws IOException {
+        HistoryLog history = HistoryStore.get(context);
+        int size = history.size();
+        if (queue == null) queue = new ReviewQueue(new File(context.getFilesDir(), FILE_NAME), size);
+        if (queue.coveredDocs() > size) {
+            // History was rebuilt underneath us; start over
+            queue.clear();
+        }
+        int first = queue.coveredDocs();
+        if (first == size) return queue;
+        long now = System.currentTimeMillis();
+        long[] dueTimes = new long[size - first];
+        for (int from = first; from < size; from += CATCH_UP_BATCH) {
+            List<WordItem> batch = history.read(from, CATCH_UP_BATCH);
+            for (int i = 0; i < batch.size(); i++) {
+                long savedAt = batch.get(i).getSavedAt();
+                dueTimes[from - first + i] = savedAt > 0 ? savedAt + FIRST_REVIEW_MS : now;
+            }
+        }
+        // A single new entry is cheaper as an incremental add than a rewrite
+        if (dueTimes.length == 1) queue.add(first, dueTimes[0]);
+        else queue.addAll(first, dueTimes);
+        return queue;
+    }
+}
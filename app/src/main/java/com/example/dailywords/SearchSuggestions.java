@@ -0,0 +1,76 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Search-as-you-type over every word the app knows about: history, the lookup cache and the
+ * offline pack. The index is built once in the background and grows as new words arrive.
+ *
+ * Keystrokes are debounced by coalescing rather than by delay: while a query is waiting for
+ * the worker thread, newer text simply replaces it, so a burst of typing runs one query for
+ * the latest text and a single keystroke is answered right away.
+ */
+public class SearchSuggestions {
+    private static final String TAG = "SearchSuggestions";
+    public static final int MAX_SUGGESTIONS = 8;
+
+    public interface Listener {
+        void onSuggestions(String query, List<String> words);
+    }
+
+    private static final WordTrie trie = new WordTrie();
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final ExecutorService indexExecutor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final AtomicReference<String> pendingQuery = new AtomicReference<>();
+    private static boolean warmedUp;
+
+    public static synchronized void warmUp(Context context) {
+        if (warmedUp) return;
+        warmedUp = true;
+        Context app = context.getApplicationContext();
+        // Separate thread, so queries are answered from the partial index while it builds
+        indexExecutor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                HistoryLog history = HistoryStore.get(app);
+                for (int i = 0, n = history.size(); i < n; i++) trie.add(history.get(i).getWord());
+            } catch (IOException e) {
+                Log.e(TAG, "History indexing failed: " + e.getMessage());
+            }
+            for (String word : WordFetcher.lookupCache(app).diskKeys()) trie.add(word);
+            OfflineDictionary pack = DictionaryPack.get(app);
+            if (pack != null) {
+                for (int i = 0, n = pack.size(); i < n; i++) trie.add(pack.keyAt(i));
+            }
+            Log.d(TAG, "Indexed " + trie.size() + " words in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        });
+    }
+
+    public static void add(String word) {
+        trie.add(word);
+    }
+
+    /** Delivers suggestions for the latest text on the main thread. */
+    public static void query(String text, Listener listener) {
+        if (pendingQuery.getAndSet(text) != null) return; // a queued query will pick this text up
+        executor.execute(() -> {
+            String latest = pendingQuery.getAndSet(null);
+            if (latest == null) return;
+            List<String> words = latest.trim().isEmpty()
+                    ? Collections.<String>emptyList()
+                    : trie.withPrefix(latest, MAX_SUGGESTIONS);
+            mainHandler.post(() -> listener.onSuggestions(latest, words));
+        });
+    }
+}
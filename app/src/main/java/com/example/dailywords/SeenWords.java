@@ -0,0 +1,154 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Words already served: every history entry plus the current word. Membership goes through a
+ * {@link BloomFilter} persisted next to the history log, so a word never seen is rejected in
+ * O(1) without touching history; only a positive is confirmed by scanning history, which keeps
+ * the answer exact. The filter catches up with the log on use, and is rebuilt from history when
+ * it is missing or unreadable, after a migration, when it outgrows its sizing, or when the
+ * false-positive rate is reconfigured.
+ */
+public class SeenWords {
+    private static final String TAG = "SeenWords";
+    private static final String FILE = "history.seen";
+    private static final String PREFS = "DailyWordSeenWords";
+    private static final String FPP_KEY = "false_positive_rate";
+    public static final double DEFAULT_FPP = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private static BloomFilter filter;
+    private static int coveredDocs; // history entries already added to the filter
+    private static long positives, falsePositives;
+
+    /** Sets the target false-positive rate; the filter is rebuilt at that rate on next use. */
+    public static synchronized void configure(Context context, double fpp) {
+        if (!(fpp > 0 && fpp < 1)) throw new IllegalArgumentException("fpp must be in (0, 1)");
+        prefs(context).edit().putFloat(FPP_KEY, (float) fpp).apply();
+        filter = null;
+    }
+
+    /**
+     * Called when history has been rewritten rather than appended to. Runs inside HistoryStore's
+     * first open, before anything can have loaded the filter, so it only drops the file (and
+     * takes no lock that {@link #contains} holds while opening the store).
+     */
+    static void onHistoryRebuilt(Context context) {
+        new File(context.getApplicationContext().getFilesDir(), FILE).delete();
+    }
+
+    /** Blocking: whether {@code word} was served before. Call it off the main thread. */
+    public static synchronized boolean contains(Context context, String word) {
+        Context app = context.getApplicationContext();
+        String key = LookupCache.key(word);
+        WordItem current = WordRepository.get(app).current();
+        if (current != null && LookupCache.key(current.getWord()).equals(key)) return true;
+
+        BloomFilter f = ensureFilter(app);
+        if (f == null || !f.mightContain(key)) return false;
+        positives++;
+        boolean seen = inHistory(app, key);
+        if (!seen) {
+            falsePositives++;
+            Log.d(TAG, "Bloom false positive for " + key + " (" + falsePositives + "/" + positives + ")");
+        }
+        return seen;
+    }
+
+    // Newest first: a real repeat is most likely a recent word
+    private static boolean inHistory(Context context, String key) {
+        try {
+            HistoryLog history = HistoryStore.get(context);
+            int size = history.size();
+            for (int from = 0; from < size; from += HistoryPagingSource.PAGE_SIZE) {
+                for (WordItem item : history.readNewest(from, HistoryPagingSource.PAGE_SIZE)) {
+                    if (LookupCache.key(item.getWord()).equals(key)) return true;
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "History scan failed: " + e.getMessage());
+            return true; // can't confirm; treating it as seen only costs one candidate
+        }
+        return false;
+    }
+
+    private static BloomFilter ensureFilter(Context context) {
+        File file = new File(context.getFilesDir(), FILE);
+        HistoryLog history;
+        try {
+            history = HistoryStore.get(context);
+        } catch (IOException e) {
+            Log.e(TAG, "History unavailable: " + e.getMessage());
+            return null;
+        }
+        double fpp = prefs(context).getFloat(FPP_KEY, (float) DEFAULT_FPP);
+        if (filter == null) load(file);
+        int size = history.size();
+        if (filter != null && coveredDocs == size && (float) filter.fpp() == (float) fpp) return filter;
+        try {
+            filter = catchUp(filter, coveredDocs, history, size, fpp);
+            coveredDocs = size;
+            save(file);
+        } catch (IOException e) {
+            Log.e(TAG, "Filter update failed: " + e.getMessage());
+            filter = null; // without the whole history in it, a negative would be wrong
+        }
+        return filter;
+    }
+
+    /**
+     * {@code filter}, which holds history entries below {@code covered}, brought up to the first
+     * {@code size}. A new filter is built instead when there is none, it predates a history
+     * rewrite, it was sized for another rate, or the new entries would saturate it.
+     */
+    static BloomFilter catchUp(BloomFilter filter, int covered, HistoryLog history, int size, double fpp) throws IOException {
+        if (filter == null || covered > size || (float) filter.fpp() != (float) fpp
+                || filter.count() + size - covered > filter.expected()) {
+            filter = new BloomFilter(Math.max(MIN_CAPACITY, size * 2), fpp);
+            covered = 0;
+        }
+        for (int from = covered; from < size; from += HistoryPagingSource.PAGE_SIZE) {
+            for (WordItem item : history.read(from, Math.min(HistoryPagingSource.PAGE_SIZE, size - from))) {
+                filter.add(LookupCache.key(item.getWord()));
+            }
+        }
+        return filter;
+    }
+
+    private static void load(File file) {
+        if (!file.isFile()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int covered = in.readInt();
+            BloomFilter loaded = BloomFilter.readFrom(in, file.length() - 4);
+            coveredDocs = covered;
+            filter = loaded;
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable filter: " + e.getMessage());
+        }
+    }
+
+    private static void save(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(coveredDocs);
+            filter.writeTo(out);
+        }
+        if (!tmp.renameTo(file)) throw new IOException("Cannot replace " + file);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.dailywords;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Call;
+
+/**
+ * Coalesces concurrent requests for the same key onto one in-flight {@link Call}.
+ * The first caller starts the call; later callers for the same key just subscribe, and the
+ * result is fanned out to everyone still subscribed. A subscriber can drop out with
+ * {@link Handle#cancel()}; the call itself is cancelled once nobody is waiting for it, even if
+ * that happens before the starter has returned it. Only the first {@code complete} counts.
+ */
+public class SingleFlight<T> {
+
+    public interface Listener<T> {
+        /** Called on the thread that completes the flight; {@code value} is null on failure. */
+        void onResult(T value);
+    }
+
+    public interface Starter<T> {
+        /** Starts the request; it must end by calling {@code flight.complete(...)}. */
+        Call start(SingleFlight<T>.Flight flight);
+    }
+
+    public interface Handle {
+        void cancel();
+    }
+
+    public final class Flight {
+        private final String key;
+        private final List<Listener<T>> listeners = new ArrayList<>();
+        private Call call;
+        private boolean abandoned;
+        private boolean done;
+
+        private Flight(String key) {
+            this.key = key;
+        }
+
+        public void complete(T value) {
+            List<Listener<T>> waiting;
+            synchronized (SingleFlight.this) {
+                if (done) return;
+                done = true;
+                if (flights.get(key) == this) flights.remove(key);
+                waiting = new ArrayList<>(listeners);
+                listeners.clear();
+            }
+            for (Listener<T> listener : waiting) listener.onResult(value);
+        }
+    }
+
+    private final Map<String, Flight> flights = new HashMap<>();
+
+    public Handle join(String key, Starter<T> starter, Listener<T> listener) {
+        Flight flight;
+        boolean leader;
+        synchronized (this) {
+            flight = flights.get(key);
+            leader = flight == null;
+            if (leader) {
+                flight = new Flight(key);
+                flights.put(key, flight);
+            }
+            flight.listeners.add(listener);
+        }
+        if (leader) {
+            Call call;
+            try {
+                call = starter.start(flight);
+            } catch (RuntimeException e) {
+                flight.complete(null);
+                throw e;
+            }
+            boolean cancel;
+            synchronized (this) {
+                flight.call = call;
+                // Everyone left while the call was being started
+                cancel = flight.abandoned && !flight.done;
+            }
+            if (cancel && call != null) call.cancel();
+        }
+        Flight joined = flight;
+        return () -> leave(joined, listener);
+    }
+
+    public synchronized int inFlight() {
+        return flights.size();
+    }
+
+    private void leave(Flight flight, Listener<T> listener) {
+        Call toCancel = null;
+        synchronized (this) {
+            if (!flight.listeners.remove(listener) || !flight.listeners.isEmpty()) return;
+            if (flights.get(flight.key) == flight) flights.remove(flight.key);
+            flight.abandoned = true;
+            toCancel = flight.call;
+        }
+        if (toCancel != null) toCancel.cancel();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.dailywords;
+
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * Logs time-to-initial-display (first frame drawn) and time-to-full-display (history shown),
+ * measured from process start where the platform exposes it and from onCreate otherwise.
+ * Macrobenchmark's StartupTimingMetric reports the same two numbers from the system side.
+ */
+public class StartupMetrics {
+    private static final String TAG = "StartupMetrics";
+
+    private final long start;
+    private final String origin;
+    private boolean fullyDrawn;
+
+    public StartupMetrics() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            start = Process.getStartUptimeMillis();
+            origin = "process start";
+        } else {
+            start = SystemClock.uptimeMillis();
+            origin = "onCreate";
+        }
+    }
+
+    /** Records the first frame of {@code root}. */
+    public void watchFirstFrame(View root) {
+        root.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                root.getViewTreeObserver().removeOnPreDrawListener(this);
+                Log.i(TAG, "Time to initial display: " + (SystemClock.uptimeMillis() - start) + " ms from " + origin);
+                return true;
+            }
+        });
+    }
+
+    /** Records full display once; returns true the first time so the caller can report it. */
+    public boolean markFullyDrawn() {
+        if (fullyDrawn) return false;
+        fullyDrawn = true;
+        Log.i(TAG, "Time to full display: " + (SystemClock.uptimeMillis() - start) + " ms from " + origin);
+        return true;
+    }
+}
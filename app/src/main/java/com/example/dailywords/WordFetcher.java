@@ -1,147 +1,316 @@
 package com.example.dailywords;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
+import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Callback;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
-import android.content.Intent;
+import okio.BufferedSource;
 
 public class WordFetcher {
     private static final String TAG = "WordFetcher";
-    private static final OkHttpClient client = new OkHttpClient();
+    static final String DEFAULT_RANDOM_WORD_API = "https://random-word-api.vercel.app/api";
+    static final String DEFAULT_DICTIONARY_API = "https://api.dictionaryapi.dev/api/v2/entries/en/";
+    static final String ENDPOINT_RANDOM_WORD = "random-word";
+    static final String ENDPOINT_DICTIONARY = "dictionary";
+    private static volatile String randomWordApi = DEFAULT_RANDOM_WORD_API;
+    private static volatile String dictionaryApi = DEFAULT_DICTIONARY_API;
+    private static final NetworkMetrics networkMetrics = new NetworkMetrics()
+            .endpoint(DEFAULT_RANDOM_WORD_API, ENDPOINT_RANDOM_WORD)
+            .endpoint(DEFAULT_DICTIONARY_API, ENDPOINT_DICTIONARY);
+    private static final OkHttpClient client = new OkHttpClient.Builder()
+            .eventListenerFactory(networkMetrics)
+            .build();
+    private static final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+
+    // One breaker per API, shared by the refresh, prefetch and search paths
+    private static final CircuitBreaker randomWordBreaker = new CircuitBreaker(ENDPOINT_RANDOM_WORD, 5, 60_000);
+    private static final CircuitBreaker dictionaryBreaker = new CircuitBreaker(ENDPOINT_DICTIONARY, 5, 60_000);
+
+    private static final int LOOKUP_MEMORY_ENTRIES = 200;
+    private static final long LOOKUP_DISK_BYTES = 2L * 1024 * 1024;
+    private static LookupCache lookupCache;
+
+    // Responses up to this size are kept whole for the details view; bigger ones only stream
+    private static final long MAX_ENTRY_BYTES = 256 * 1024;
+    private static final long ENTRY_DISK_BYTES = 8L * 1024 * 1024;
+    private static final long DETAILS_TIMEOUT_MS = 10_000;
+    private static EntryStore entryStore;
+
+    private static final SingleFlight<WordItem> dictionaryFlights = new SingleFlight<>();
+    private static List<Runnable> refreshWaiters; // non-null while a refresh is running
+    private static int refreshTraceId; // trace id of that refresh
+    static volatile boolean refreshNotify; // read by RefreshJob when it saves
+    private static volatile int searchGeneration;
+    private static SingleFlight.Handle searchHandle;
+
+    /**
+     * Points the two APIs somewhere else, e.g. a staging server or a local mock. Takes effect for
+     * requests started afterwards; metrics keep their per-endpoint totals. The random-word base
+     * gets {@code ?words=n} appended, the dictionary base the word itself.
+     */
+    static void setBaseUrls(String randomWordBase, String dictionaryBase) {
+        HttpUrl.get(randomWordBase); // throws on a malformed URL before anything changes
+        HttpUrl.get(dictionaryBase);
+        randomWordApi = randomWordBase;
+        dictionaryApi = dictionaryBase;
+        networkMetrics.rebase(ENDPOINT_RANDOM_WORD, randomWordBase);
+        networkMetrics.rebase(ENDPOINT_DICTIONARY, dictionaryBase);
+    }
 
     // Added parameter: showNotification
-    public static void fetchWord(Context context, boolean showNotification, Runnable onComplete) {
-        String randomWordApi = "https://random-word-api.vercel.app/api?words=1";
-        Request randomReq = new Request.Builder().url(randomWordApi).build();
-
-        client.newCall(randomReq).enqueue(new Callback() {
-            @Override
-            public void onFailure(Call call, IOException e) {
-                Log.e(TAG, "Random word fetch failed: " + e.getMessage());
-                if (onComplete != null) runOnMain(onComplete);
-            }
+    // Only one refresh runs at a time; calls made while one is running wait for that one.
+    // Returns the trace id of the refresh that onComplete waits for.
+    public static int fetchWord(Context context, boolean showNotification, Runnable onComplete) {
+        return startRefresh(context, showNotification, false, onComplete);
+    }
 
-            @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String body = response.body().string();
-                response.close();
-
-                try {
-                    JsonArray arr = JsonParser.parseString(body).getAsJsonArray();
-                    if (arr.size() == 0) throw new Exception("Empty array");
-                    String word = arr.get(0).getAsString().toLowerCase(Locale.ROOT);
-                    fetchMeaning(context, word, showNotification, onComplete);
-                } catch (Exception ex) {
-                    Log.e(TAG, "Parse error random word: " + ex.getMessage());
-                    if (onComplete != null) runOnMain(onComplete);
-                }
+    /** Continues a refresh that was parked or interrupted; does nothing if none is pending. */
+    public static int resumeRefresh(Context context, Runnable onComplete) {
+        return startRefresh(context, false, true, onComplete);
+    }
+
+    private static int startRefresh(Context context, boolean showNotification, boolean resumeOnly, Runnable onComplete) {
+        int traceId;
+        synchronized (WordFetcher.class) {
+            refreshNotify |= showNotification;
+            if (refreshWaiters != null) {
+                if (onComplete != null) refreshWaiters.add(onComplete);
+                return refreshTraceId;
             }
-        });
+            refreshWaiters = new ArrayList<>();
+            if (onComplete != null) refreshWaiters.add(onComplete);
+            traceId = RefreshTrace.start(resumeOnly ? "resume" : showNotification ? "alarm" : "manual");
+            refreshTraceId = traceId;
+        }
+        RefreshJob.start(context.getApplicationContext(), resumeOnly, traceId, () -> runOnMain(() -> finishRefresh(traceId)));
+        return traceId;
     }
 
-    // Pass showNotification along
-    private static void fetchMeaning(Context context, String word, boolean showNotification, Runnable onComplete) {
-        String dictUrl = "https://api.dictionaryapi.dev/api/v2/entries/en/" + word;
-        Request dictReq = new Request.Builder().url(dictUrl).build();
+    // Main thread; everything the refresh published was posted before this, so it is on screen
+    private static void finishRefresh(int traceId) {
+        List<Runnable> waiters;
+        synchronized (WordFetcher.class) {
+            waiters = refreshWaiters;
+            refreshWaiters = null;
+            refreshNotify = false;
+        }
+        for (Runnable r : waiters) r.run();
+        RefreshTrace.finish(traceId);
+    }
 
-        client.newCall(dictReq).enqueue(new Callback() {
-            @Override
-            public void onFailure(Call call, IOException e) {
-                Log.e(TAG, "Meaning fetch failed: " + e.getMessage());
-                if (onComplete != null) runOnMain(onComplete);
+    /** Blocking: {@code count} random words. Throws on anything worth retrying. */
+    static List<String> fetchRandomWords(int count, long timeoutMillis) throws IOException {
+        randomWordBreaker.acquire();
+        Call call = client.newCall(new Request.Builder().url(randomWordApi + "?words=" + count).build());
+        if (timeoutMillis > 0) call.timeout().timeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        List<String> words = new ArrayList<>();
+        try (Response response = call.execute()) {
+            if (!response.isSuccessful()) throw new IOException("Random word HTTP " + response.code());
+            JsonArray arr = JsonParser.parseString(response.body().string()).getAsJsonArray();
+            for (int i = 0; i < arr.size(); i++) words.add(arr.get(i).getAsString().toLowerCase(Locale.ROOT));
+        } catch (IOException e) {
+            randomWordBreaker.onFailure();
+            throw e;
+        } catch (RuntimeException e) {
+            randomWordBreaker.onFailure();
+            throw new IOException("Parse error random word: " + e.getMessage());
+        }
+        randomWordBreaker.onSuccess();
+        return words;
+    }
+
+    /**
+     * Blocking: fetches one batch of random words and resolves up to {@code count} of them that
+     * have a definition. Words already served or without a definition are dropped, so a batch
+     * asks for a few extra.
+     */
+    static List<WordItem> fetchReadyWords(Context context, int count) {
+        List<WordItem> ready = new ArrayList<>();
+        try {
+            for (String word : fetchRandomWords(count * 2, 0)) {
+                if (ready.size() >= count) break;
+                if (SeenWords.contains(context, word)) continue;
+                WordItem entry = resolveWord(context, word, 0);
+                if (hasDefinition(entry)) ready.add(entry);
             }
+        } catch (IOException e) {
+            Log.e(TAG, "Prefetch batch failed: " + e.getMessage());
+        }
+        return ready;
+    }
 
-            @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String body = response.body().string();
-                response.close();
-
-                String pos = "", def = "Not found", ex = "No example";
-
-                try {
-                    JsonArray arr = JsonParser.parseString(body).getAsJsonArray();
-                    JsonArray meanings = arr.get(0).getAsJsonObject().getAsJsonArray("meanings");
-
-                    for (int i = 0; i < meanings.size(); i++) {
-                        JsonObject meaningObj = meanings.get(i).getAsJsonObject();
-                        pos = meaningObj.get("partOfSpeech").getAsString();
-                        JsonArray defs = meaningObj.getAsJsonArray("definitions");
-                        if (defs.size() > 0) {
-                            JsonObject defObj = defs.get(0).getAsJsonObject();
-                            if (defObj.has("definition")) def = defObj.get("definition").getAsString();
-                            if (defObj.has("example")) ex = defObj.get("example").getAsString();
-                            break;
-                        }
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "Dictionary parse error: " + e.getMessage());
-                }
+    /**
+     * Blocking: the dictionary entry for {@code word}, from the offline pack, the lookup cache or
+     * the network. An unknown word comes back as a "Not found" entry; an IOException means the
+     * answer is still open and the lookup is worth retrying.
+     */
+    static WordItem resolveWord(Context context, String word, long timeoutMillis) throws IOException {
+        return resolveWord(context, word, timeoutMillis, null);
+    }
 
-                saveWord(context, word, pos, def, ex, showNotification);
-                if (onComplete != null) runOnMain(onComplete);
+    /** As above; a network request first takes a token from {@code limiter}, if there is one. */
+    static WordItem resolveWord(Context context, String word, long timeoutMillis, TokenBucket limiter) throws IOException {
+        WordItem offline = lookupOffline(context, word);
+        if (offline != null) return offline;
+        LookupCache.Entry cached = lookupCache(context).get(word);
+        if (cached != null) return cached.isNegative() ? notFound(word) : cached.item;
+        if (limiter != null) {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a request token");
             }
-        });
+        }
+        return lookupRemote(context, word, timeoutMillis);
     }
 
-    // Add flag for notification + history saving
-    private static void saveWord(Context context, String word, String pos, String meaning, String example, boolean showNotification) {
-        SharedPreferences prefs = context.getSharedPreferences(MainActivity.PREFS, Context.MODE_PRIVATE);
+    // Blocking network half of resolveWord
+    private static WordItem lookupRemote(Context context, String word, long timeoutMillis) throws IOException {
+        dictionaryBreaker.acquire();
+        Call call = client.newCall(new Request.Builder().url(dictionaryApi + word).build());
+        if (timeoutMillis > 0) call.timeout().timeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        WordItem entry;
+        try (Response response = call.execute()) {
+            if (isTransient(response.code())) throw new IOException("Dictionary HTTP " + response.code());
+            entry = parseEntry(context, word, response, 0);
+            cacheLookup(context, word, response, entry);
+        } catch (IOException e) {
+            dictionaryBreaker.onFailure();
+            throw e;
+        }
+        dictionaryBreaker.onSuccess();
+        return entry;
+    }
 
-        // Save old word into history before overwriting
-        String oldWord = prefs.getString("word", null);
-        String oldMeaning = prefs.getString("meaning", null);
+    /**
+     * Blocking: looks the candidates up in parallel, at most {@code concurrency} requests at a
+     * time, and returns the first one with a real definition. Lookups go through
+     * {@code dictionaryFlights}, so a candidate the search box is already asking for shares that
+     * request; once the race is over it drops out of the ones still running, which are cancelled
+     * unless someone else is waiting on them. Returns null if every candidate came back without
+     * a definition, and throws if none won but some failed transiently or time ran out, so
+     * trying again is worthwhile. Parsing is traced as part of refresh {@code traceId}.
+     */
+    static WordItem raceCandidates(Context context, List<String> candidates, int concurrency, long timeoutMillis,
+            int traceId) throws IOException {
+        List<String> remote = new ArrayList<>();
+        for (String word : candidates) {
+            WordItem offline = lookupOffline(context, word);
+            if (offline != null) return offline;
+            LookupCache.Entry cached = lookupCache(context).get(word);
+            if (cached == null) remote.add(word);
+            else if (!cached.isNegative()) return cached.item;
+        }
+        if (remote.isEmpty()) return null;
+        return new CandidateRace(context, remote, Math.max(1, concurrency), timeoutMillis, traceId).run();
+    }
 
-        if (oldWord != null && oldMeaning != null && !oldWord.equals("No word yet")) {
-            Gson gson = new Gson();
-            String json = prefs.getString(MainActivity.HISTORY_KEY, null);
-            Type type = new TypeToken<ArrayList<WordItem>>(){}.getType();
-            List<WordItem> history = json != null ? gson.fromJson(json, type) : new ArrayList<>();
+    private static class CandidateRace {
+        private final Context context;
+        private final List<String> pending;
+        private final int concurrency;
+        private final long timeoutMillis;
+        private final int traceId;
+        private final List<SingleFlight.Handle> joined = new ArrayList<>();
+        private int running;
+        private WordItem winner;
+        private boolean failedTransiently;
+        private boolean over;
+
+        CandidateRace(Context context, List<String> candidates, int concurrency, long timeoutMillis, int traceId) {
+            this.context = context;
+            this.pending = new ArrayList<>(candidates);
+            this.concurrency = concurrency;
+            this.timeoutMillis = timeoutMillis;
+            this.traceId = traceId;
+        }
 
-            // Insert at top
-            history.add(0, new WordItem(oldWord, oldMeaning));
+        synchronized WordItem run() throws IOException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            launchMore();
+            try {
+                while (winner == null && running > 0) {
+                    long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0) {
+                        failedTransiently = true;
+                        break;
+                    }
+                    wait(wait);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedTransiently = true;
+            }
+            over = true;
+            for (SingleFlight.Handle handle : joined) handle.cancel();
+            if (winner != null) return winner;
+            if (failedTransiently) throw new IOException("No candidate resolved");
+            return null;
+        }
 
-            // Save back
-            prefs.edit().putString(MainActivity.HISTORY_KEY, gson.toJson(history)).apply();
-            Log.d(TAG, "History updated with: " + oldWord);
+        // Called with the lock held. A flight that fails on the spot (breaker open) calls
+        // finished() from inside join(), on this thread, which the lock allows.
+        private void launchMore() {
+            while (running < concurrency && !pending.isEmpty()) {
+                String word = pending.remove(0);
+                running++;
+                joined.add(lookupDictionary(context, word, traceId, this::finished));
+            }
         }
 
-        // Now overwrite prefs with new word
-        prefs.edit()
-                .putString("word", word)
-                .putString("pos", pos)
-                .putString("meaning", meaning)
-                .putString("example", example)
-                .apply();
+        private synchronized void finished(WordItem entry) {
+            running--;
+            if (over) return;
+            if (entry == null) {
+                failedTransiently = true;
+                // No point queueing more lookups behind an open breaker
+                if (dictionaryBreaker.state() == CircuitBreaker.State.OPEN) pending.clear();
+            } else if (winner == null && hasDefinition(entry)) winner = entry;
+            if (winner == null) launchMore();
+            notifyAll();
+        }
+    }
 
+    // Add flag for notification + history saving; traced as part of refresh traceId
+    static void saveWord(Context context, String word, String pos, String meaning, String example, boolean showNotification,
+            int traceId) {
+        WordItem saved = new WordItem(word, pos, meaning, example, System.currentTimeMillis());
+        try (RefreshTrace.Span span = RefreshTrace.section(traceId, RefreshTrace.PERSIST)) {
+            WordRepository.get(context).setCurrent(saved, traceId);
+            if (hasDefinition(saved)) lookupCache(context).put(word, saved);
+        }
         Log.d(TAG, "Word saved: " + word);
-
-        // Broadcast so UI updates
-        Intent intent = new Intent("com.example.dailywords.NEW_WORD");
-        context.sendBroadcast(intent);
+        SearchSuggestions.add(word);
+        Pronunciation.prefetch(context, word);
 
         // Show notification only if auto-refresh
         if (showNotification) {
-            NotificationHelper.showWordRefreshedNotification(context);
+            try (RefreshTrace.Span span = RefreshTrace.section(traceId, RefreshTrace.NOTIFY)) {
+                NotificationHelper.showWordRefreshedNotification(context);
+            }
         }
     }
 
@@ -149,44 +318,220 @@ public class WordFetcher {
         new Handler(Looper.getMainLooper()).post(r);
     }
 
+    /**
+     * Looks a word up for the search box. A newer call supersedes an older one: the older
+     * network request is cancelled if nobody else needs it, and its callback never fires.
+     */
     public static void fetchSpecificWord(Context context, String word, WordCallback callback) {
-        String dictUrl = "https://api.dictionaryapi.dev/api/v2/entries/en/" + word;
-        Request dictReq = new Request.Builder().url(dictUrl).build();
+        int generation;
+        synchronized (WordFetcher.class) {
+            generation = ++searchGeneration;
+            if (searchHandle != null) searchHandle.cancel();
+            searchHandle = null;
+        }
+        WordCallback latestOnly = (w, pos, meaning, example) -> {
+            if (generation == searchGeneration) callback.onResult(w, pos, meaning, example);
+        };
+
+        LookupCache cache = lookupCache(context);
+        LookupCache.Entry hit = cache.getFromMemory(word);
+        if (hit != null) {
+            deliver(word, hit, latestOnly);
+            return;
+        }
 
-        client.newCall(dictReq).enqueue(new Callback() {
-            @Override
-            public void onFailure(Call call, IOException e) {
-                runOnMain(() -> callback.onResult(word, "", "Not found", "No example"));
+        ioExecutor.execute(() -> {
+            if (generation != searchGeneration) return;
+            LookupCache.Entry cached = cache.get(word);
+            if (cached != null) {
+                runOnMain(() -> deliver(word, cached, latestOnly));
+                return;
+            }
+            WordItem offline = lookupOffline(context, word);
+            if (offline != null) {
+                cache.put(word, offline);
+                runOnMain(() -> latestOnly.onResult(word, offline.getPos(), offline.getMeaning(), offline.getExample()));
+                return;
             }
+            SingleFlight.Handle handle = lookupDictionary(context, word, 0, entry -> runOnMain(() -> {
+                if (entry == null) latestOnly.onResult(word, "", "Not found", "No example");
+                else latestOnly.onResult(word, entry.getPos(), entry.getMeaning(), entry.getExample());
+            }));
+            synchronized (WordFetcher.class) {
+                if (generation == searchGeneration) searchHandle = handle;
+                else handle.cancel();
+            }
+        });
+    }
 
-            @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                String body = response.body().string();
-                response.close();
-
-                String pos = "", def = "Not found", ex = "No example";
-                try {
-                    JsonArray arr = JsonParser.parseString(body).getAsJsonArray();
-                    JsonArray meanings = arr.get(0).getAsJsonObject().getAsJsonArray("meanings");
-                    for (int i = 0; i < meanings.size(); i++) {
-                        JsonObject meaningObj = meanings.get(i).getAsJsonObject();
-                        pos = meaningObj.get("partOfSpeech").getAsString();
-                        JsonArray defs = meaningObj.getAsJsonArray("definitions");
-                        if (defs.size() > 0) {
-                            JsonObject defObj = defs.get(0).getAsJsonObject();
-                            if (defObj.has("definition")) def = defObj.get("definition").getAsString();
-                            if (defObj.has("example")) ex = defObj.get("example").getAsString();
-                            break;
+    /**
+     * Dictionary request shared by everyone asking for the same word at the same time.
+     * The listener gets the parsed entry, or null if the request failed or was cancelled.
+     * Parsing is traced as part of refresh {@code traceId} when this call starts the request.
+     */
+    private static SingleFlight.Handle lookupDictionary(Context context, String word, int traceId,
+            SingleFlight.Listener<WordItem> listener) {
+        return dictionaryFlights.join(LookupCache.key(word), flight -> {
+            try {
+                dictionaryBreaker.acquire();
+            } catch (CircuitBreaker.OpenException e) {
+                Log.w(TAG, e.getMessage());
+                flight.complete(null);
+                return null;
+            }
+            Request dictReq = new Request.Builder().url(dictionaryApi + word).build();
+            Call call = client.newCall(dictReq);
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    if (call.isCanceled()) dictionaryBreaker.onCancelled();
+                    else dictionaryBreaker.onFailure();
+                    flight.complete(null);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    // OkHttp doesn't call onFailure when this throws, so the flight completes here
+                    WordItem entry = null;
+                    try (Response r = response) {
+                        if (isTransient(r.code())) {
+                            dictionaryBreaker.onFailure();
+                            return;
+                        }
+                        try {
+                            entry = parseEntry(context, word, r, traceId);
+                        } catch (IOException e) {
+                            dictionaryBreaker.onFailure();
+                            throw e;
                         }
+                        dictionaryBreaker.onSuccess();
+                        cacheLookup(context, word, r, entry);
+                    } finally {
+                        flight.complete(entry);
                     }
-                } catch (Exception e) {}
+                }
+            });
+            return call;
+        }, listener);
+    }
 
-                String finalPos = pos, finalDef = def, finalEx = ex;
-                runOnMain(() -> callback.onResult(word, finalPos, finalDef, finalEx));
-            }
+    /**
+     * Details for a word: its full dictionary entry, from the store or, if it was never kept or
+     * has been trimmed, from the network. The callback gets null if no entry could be had, e.g.
+     * for a word only the offline pack knows. Only the outline is decoded before delivery.
+     */
+    public static void fetchDetails(Context context, String word, DetailsCallback callback) {
+        Context app = context.getApplicationContext();
+        ioExecutor.execute(() -> {
+            DictionaryEntry entry = loadEntry(app, word);
+            if (entry != null) entry.partsOfSpeech();
+            runOnMain(() -> callback.onDetails(word, entry));
         });
     }
 
+    /** Blocking form of {@link #fetchDetails}; null if no entry could be had. */
+    static DictionaryEntry loadEntry(Context context, String word) {
+        DictionaryEntry entry = entryStore(context).get(word);
+        if (entry != null) return entry;
+        try {
+            lookupRemote(context, word, DETAILS_TIMEOUT_MS);
+        } catch (IOException e) {
+            Log.w(TAG, "Details for " + word + " unavailable: " + e.getMessage());
+            return null;
+        }
+        return entryStore(context).get(word);
+    }
+
+    // Parses the summary straight off the wire, stopping once it has what it needs; the parser
+    // reads through a peek, so the body is still all there. Only when the word has a definition
+    // is the rest read and the whole response kept for the details view, and a body too big to
+    // hold in memory is not kept at all.
+    // Traced as part of refresh traceId, or 0 outside one.
+    private static WordItem parseEntry(Context context, String word, Response response, int traceId) throws IOException {
+        BufferedSource source = response.body().source();
+        WordItem entry;
+        try (RefreshTrace.Span span = RefreshTrace.section(traceId, RefreshTrace.PARSE)) {
+            entry = DictionaryParser.parse(word, new InputStreamReader(source.peek().inputStream(), StandardCharsets.UTF_8));
+        }
+        if (!hasDefinition(entry) || source.request(MAX_ENTRY_BYTES + 1)) return entry;
+        byte[] json = source.readByteArray();
+        entryStore(context).put(DictionaryEntry.fromJson(word, json));
+        return entry;
+    }
+
+    // Only a definite "unknown word" is cached; server errors go back to the network next time
+    private static void cacheLookup(Context context, String word, Response response, WordItem entry) {
+        if (hasDefinition(entry)) {
+            lookupCache(context).put(word, entry);
+            SearchSuggestions.add(word);
+        } else if (response.code() == 404 || response.isSuccessful()) {
+            lookupCache(context).putNegative(word);
+        }
+    }
+
+    // Rate limiting and server errors say nothing about the word itself
+    private static boolean isTransient(int code) {
+        return code == 429 || code >= 500;
+    }
+
+    private static WordItem notFound(String word) {
+        return new WordItem(word, "", DictionaryParser.NOT_FOUND, DictionaryParser.NO_EXAMPLE, 0);
+    }
+
+    static boolean hasDefinition(WordItem item) {
+        return !DictionaryParser.NOT_FOUND.equals(item.getMeaning());
+    }
+
+    private static void deliver(String word, LookupCache.Entry entry, WordCallback callback) {
+        if (entry.isNegative()) {
+            callback.onResult(word, "", "Not found", "No example");
+        } else {
+            WordItem item = entry.item;
+            callback.onResult(word, item.getPos(), item.getMeaning(), item.getExample());
+        }
+    }
+
+    private static WordItem lookupOffline(Context context, String word) {
+        OfflineDictionary pack = DictionaryPack.get(context);
+        return pack != null ? pack.lookup(word) : null;
+    }
+
+    static OkHttpClient client() {
+        return client;
+    }
+
+    static NetworkMetrics networkMetrics() {
+        return networkMetrics;
+    }
+
+    static synchronized LookupCache lookupCache(Context context) {
+        if (lookupCache == null) {
+            File cacheDir = context.getApplicationContext().getCacheDir();
+            lookupCache = new LookupCache(new File(cacheDir, "lookup2"), LOOKUP_MEMORY_ENTRIES, LOOKUP_DISK_BYTES);
+            // Files in the old directory carry no key and can't tell negative entries apart
+            File legacy = new File(cacheDir, "lookup");
+            ioExecutor.execute(() -> {
+                File[] files = legacy.listFiles();
+                if (files == null) return;
+                for (File f : files) f.delete();
+                legacy.delete();
+            });
+        }
+        return lookupCache;
+    }
+
+    static synchronized EntryStore entryStore(Context context) {
+        if (entryStore == null) {
+            File dir = new File(context.getApplicationContext().getFilesDir(), "entries");
+            entryStore = new EntryStore(dir, ENTRY_DISK_BYTES);
+        }
+        return entryStore;
+    }
+
+    public interface DetailsCallback {
+        void onDetails(String word, DictionaryEntry entry);
+    }
+
     public interface WordCallback {
         void onResult(String word, String pos, String meaning, String example);
     }
@@ -2,15 +2,31 @@ package com.example.dailywords;
 
 public class WordItem {
     private String word;
+    private String pos;
     private String meaning;
+    private String example;
+    private long savedAt;
 
     public WordItem(String word, String meaning) {
         this.word = word;
         this.meaning = meaning;
     }
 
-    public String getWord() { return word; }
-    public String getMeaning() { return meaning; }
+    public WordItem(String word, String pos, String meaning, String example, long savedAt) {
+        this.word = word;
+        this.pos = pos;
+        this.meaning = meaning;
+        this.example = example;
+        this.savedAt = savedAt;
+    }
+
+    // Entries from the old word+meaning format (migrated by Gson) or from a hand-edited import
+    // can lack any of these, so the getters never hand out null
+    public String getWord() { return word != null ? word : ""; }
+    public String getPos() { return pos != null ? pos : ""; }
+    public String getMeaning() { return meaning != null ? meaning : ""; }
+    public String getExample() { return example != null ? example : ""; }
+    public long getSavedAt() { return savedAt; }
 
     public WordItem() {}
 }
@@ -0,0 +1,189 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Imports a vocabulary list: every word not already in history is looked up through
+ * {@link BatchLookup} and the ones with a definition are appended to history in batches.
+ * Network lookups share a token bucket so a long list stays within the dictionary API's
+ * limits; cached and offline words aren't throttled. One import runs at a time.
+ */
+public class WordListImport {
+    private static final String TAG = "WordListImport";
+    private static final int CONCURRENCY = 4;
+    private static final double REQUESTS_PER_SECOND = 4;
+    private static final int BURST = 8;
+    private static final int BATCH_SIZE = 50;
+    private static final long LOOKUP_TIMEOUT_MS = 10_000;
+    private static final int MAX_WORDS = 5000;
+    private static final int MAX_WORD_LENGTH = 64;
+
+    public interface Listener {
+        void onProgress(BatchLookup.Report soFar);
+
+        /** {@code report} is null if the import couldn't run; {@code error} says why. */
+        void onDone(BatchLookup.Report report, String error);
+    }
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Both guarded by WordListImport.class
+    private static BatchLookup running;
+    private static boolean busy;
+
+    public static void fromText(Context context, String text, Listener listener) {
+        start(context, () -> new StringReader(text), listener);
+    }
+
+    public static void fromUri(Context context, Uri uri, Listener listener) {
+        Context app = context.getApplicationContext();
+        start(app, () -> {
+            InputStream in = app.getContentResolver().openInputStream(uri);
+            if (in == null) throw new IOException("Cannot open " + uri);
+            return new InputStreamReader(in, StandardCharsets.UTF_8);
+        }, listener);
+    }
+
+    /** Stops the running import; what has resolved so far is still saved and reported. */
+    public static synchronized void cancel() {
+        if (running != null) running.cancel();
+    }
+
+    public static synchronized boolean isRunning() {
+        return busy;
+    }
+
+    private interface Source {
+        Reader open() throws IOException;
+    }
+
+    private static void start(Context context, Source source, Listener listener) {
+        synchronized (WordListImport.class) {
+            if (busy) {
+                mainHandler.post(() -> listener.onDone(null, "An import is already running"));
+                return;
+            }
+            busy = true;
+        }
+        Context app = context.getApplicationContext();
+        executor.execute(() -> {
+            BatchLookup.Report report = null;
+            String error = null;
+            try {
+                report = run(app, source, listener);
+                Log.i(TAG, "Word list import: " + report);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Word list import failed: " + e.getMessage());
+                error = e.getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = "Interrupted";
+            } finally {
+                synchronized (WordListImport.class) {
+                    running = null;
+                    busy = false;
+                }
+            }
+            BatchLookup.Report result = report;
+            String message = error;
+            mainHandler.post(() -> listener.onDone(result, message));
+        });
+    }
+
+    private static BatchLookup.Report run(Context app, Source source, Listener listener)
+            throws IOException, InterruptedException {
+        List<String> words;
+        try (Reader in = source.open()) {
+            words = parseWords(in, MAX_WORDS);
+        }
+        HistoryLog history = WordRepository.get(app).history();
+        words.removeAll(historyWords(history));
+
+        TokenBucket limiter = new TokenBucket(REQUESTS_PER_SECOND, BURST);
+        BatchLookup lookup = new BatchLookup(
+                word -> {
+                    WordItem item = WordFetcher.resolveWord(app, word, LOOKUP_TIMEOUT_MS, limiter);
+                    return WordFetcher.hasDefinition(item) ? item : null;
+                },
+                batch -> commit(app, batch),
+                CONCURRENCY, new Backoff(1000, 30_000, 4), BATCH_SIZE);
+        synchronized (WordListImport.class) {
+            running = lookup;
+        }
+        return lookup.run(words, soFar -> mainHandler.post(() -> listener.onProgress(soFar)));
+    }
+
+    // One history append, one index catch-up, one review catch-up and one UI delta per batch
+    private static void commit(Context app, List<WordItem> batch) throws IOException {
+        long now = System.currentTimeMillis();
+        List<WordItem> items = new ArrayList<>(batch.size());
+        for (WordItem item : batch) {
+            items.add(new WordItem(item.getWord(), item.getPos(), item.getMeaning(), item.getExample(), now));
+            SearchSuggestions.add(item.getWord());
+        }
+        WordRepository.get(app).appendHistory(items);
+    }
+
+    /**
+     * Words from free text: anything between whitespace, commas or semicolons, lowercased, in
+     * order and without repeats. Tokens that can't be a dictionary word are dropped.
+     */
+    static List<String> parseWords(Reader in, int limit) throws IOException {
+        Set<String> words = new LinkedHashSet<>();
+        StringBuilder token = new StringBuilder();
+        char[] buf = new char[4096];
+        int n;
+        while (words.size() < limit && (n = in.read(buf)) > 0) {
+            for (int i = 0; i < n && words.size() < limit; i++) {
+                char c = buf[i];
+                if (Character.isWhitespace(c) || c == ',' || c == ';') {
+                    addWord(words, token);
+                } else {
+                    token.append(c);
+                }
+            }
+        }
+        if (words.size() < limit) addWord(words, token);
+        return new ArrayList<>(words);
+    }
+
+    private static void addWord(Set<String> words, StringBuilder token) {
+        String word = token.toString().toLowerCase(Locale.ROOT);
+        token.setLength(0);
+        if (word.isEmpty() || word.length() > MAX_WORD_LENGTH) return;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (!Character.isLetter(c) && c != '-' && c != '\'') return;
+        }
+        words.add(word);
+    }
+
+    private static Set<String> historyWords(HistoryLog history) throws IOException {
+        Set<String> words = new HashSet<>();
+        for (int from = 0, size = history.size(); from < size; from += HistoryPagingSource.PAGE_SIZE) {
+            for (WordItem item : history.read(from, HistoryPagingSource.PAGE_SIZE)) {
+                words.add(LookupCache.key(item.getWord()));
+            }
+        }
+        return words;
+    }
+}
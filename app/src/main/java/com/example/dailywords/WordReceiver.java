@@ -10,13 +10,27 @@ public class WordReceiver extends BroadcastReceiver {
 
     @Override
     public void onReceive(Context context, Intent intent) {
-        Log.d(TAG, "Alarm triggered: fetching new word...");
-        // Auto fetch (with notification)
-        WordFetcher.fetchWord(context, true, () -> {
-            // App UI update via broadcast
-            Intent updateIntent = new Intent("com.example.dailywords.NEW_WORD");
-            context.sendBroadcast(updateIntent);
-        });
+        // Keeps the process alive until the refresh has finished or parked itself
+        PendingResult pending = goAsync();
+        // The UI follows the repository in-process, so there is nothing to broadcast here.
+        // The span is opened once the refresh (and its trace id) exists; completion is always
+        // posted to the main thread, so it can't run before this method has returned.
+        RefreshTrace.Span[] held = new RefreshTrace.Span[1];
+        int traceId;
+        Runnable onComplete = () -> {
+            if (held[0] != null) held[0].close();
+            pending.finish();
+        };
+
+        if (RefreshJob.ACTION_RESUME.equals(intent.getAction())) {
+            Log.d(TAG, "Resume alarm: continuing pending refresh...");
+            traceId = WordFetcher.resumeRefresh(context, onComplete);
+        } else {
+            Log.d(TAG, "Alarm triggered: fetching new word...");
+            // Auto fetch (with notification)
+            traceId = WordFetcher.fetchWord(context, true, onComplete);
+        }
+        held[0] = RefreshTrace.async(traceId, RefreshTrace.RECEIVER);
     }
 
 }
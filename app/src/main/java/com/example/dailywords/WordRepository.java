@@ -0,0 +1,122 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Single owner of the current word and the history log inside the process. Writers replace the
+ * current word through {@link #setCurrent}; observers get typed deltas on the main thread
+ * (the new current word, the history entries inserted) and apply them directly instead of
+ * reloading state. Bulk imports append through {@link #appendHistory} for the same reason.
+ * Nothing here crosses processes; the alarm broadcast is the only wake-up that comes from
+ * outside.
+ */
+public class WordRepository {
+    private static final String TAG = "WordRepository";
+
+    public interface Observer {
+        void onCurrentWordChanged(WordItem current);
+
+        /** {@code item} was appended to history at insertion index {@code index}. */
+        void onHistoryInserted(int index, WordItem item);
+
+        /** {@code count} entries were appended to history starting at insertion index {@code first}. */
+        void onHistoryRangeInserted(int first, int count);
+    }
+
+    private static WordRepository instance;
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Observer> observers = new CopyOnWriteArrayList<>();
+    private WordItem current;
+    private boolean currentLoaded;
+
+    public static synchronized WordRepository get(Context context) {
+        if (instance == null) instance = new WordRepository(context.getApplicationContext());
+        return instance;
+    }
+
+    private WordRepository(Context context) {
+        this.context = context;
+    }
+
+    /** The current word, or null before the first one is saved. */
+    public synchronized WordItem current() {
+        if (!currentLoaded) {
+            current = WordSnapshot.read(context);
+            currentLoaded = true;
+        }
+        return current;
+    }
+
+    public HistoryLog history() throws IOException {
+        return HistoryStore.get(context);
+    }
+
+    /**
+     * Blocking: makes {@code item} the current word and moves the previous one into history.
+     * Publishing is traced as part of refresh {@code traceId}, or untraced for 0.
+     */
+    public synchronized void setCurrent(WordItem item, int traceId) {
+        WordItem previous = current();
+        if (previous != null) {
+            WordItem old = new WordItem(previous.getWord(), previous.getPos(), previous.getMeaning(),
+                    previous.getExample(), System.currentTimeMillis());
+            try {
+                int index = history().append(old);
+                HistorySearch.onHistoryAppended(context);
+                ReviewScheduler.onHistoryAppended(context);
+                Log.d(TAG, "History updated with: " + old.getWord());
+                publish(traceId, o -> o.onHistoryInserted(index, old));
+            } catch (IOException e) {
+                Log.e(TAG, "History append failed: " + e.getMessage());
+            }
+        }
+
+        WordSnapshot.write(context, item);
+        WordWidget.update(context, item);
+        current = item;
+        publish(traceId, o -> o.onCurrentWordChanged(item));
+    }
+
+    /** Blocking: appends {@code items} to history in one write and publishes them as one range. */
+    public synchronized void appendHistory(List<WordItem> items) throws IOException {
+        if (items.isEmpty()) return;
+        HistoryLog history = history();
+        int first = history.size();
+        history.appendAll(items);
+        HistorySearch.onHistoryAppended(context);
+        ReviewScheduler.onHistoryAppended(context);
+        int count = items.size();
+        publish(0, o -> o.onHistoryRangeInserted(first, count));
+    }
+
+    /** Observers are called on the main thread; add and remove them there too. */
+    public void observe(Observer observer) {
+        observers.add(observer);
+    }
+
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    private interface Delivery {
+        void deliver(Observer observer);
+    }
+
+    // The publish span covers only the wait in the main queue; observers trace their own rendering
+    private void publish(int traceId, Delivery delivery) {
+        RefreshTrace.Span queued = RefreshTrace.async(traceId, RefreshTrace.PUBLISH);
+        mainHandler.post(() -> {
+            queued.close();
+            for (Observer observer : observers) delivery.deliver(observer);
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.dailywords;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * The current word kept in a tiny file of its own, written on every save. Startup (and anything
+ * else that only needs today's word) reads this instead of the preferences file.
+ */
+public class WordSnapshot {
+    private static final String TAG = "WordSnapshot";
+    private static final String FILE_NAME = "current_word.snapshot";
+
+    /** The current word, or null if none has been saved yet. */
+    public static WordItem read(Context context) {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        if (file.isFile()) {
+            try (FileInputStream in = new FileInputStream(file)) {
+                byte[] payload = new byte[(int) file.length()];
+                int read = 0;
+                while (read < payload.length) {
+                    int n = in.read(payload, read, payload.length - read);
+                    if (n < 0) throw new IOException("Short read");
+                    read += n;
+                }
+                return HistoryLog.decode(payload);
+            } catch (IOException e) {
+                Log.e(TAG, "Snapshot unreadable: " + e.getMessage());
+            }
+        }
+
+        // First start after an update: build the snapshot from the preferences once
+        SharedPreferences prefs = context.getSharedPreferences(MainActivity.PREFS, Context.MODE_PRIVATE);
+        String word = prefs.getString("word", null);
+        if (word == null) return null;
+        WordItem item = new WordItem(word, prefs.getString("pos", ""), prefs.getString("meaning", ""),
+                prefs.getString("example", ""), 0);
+        write(context, item);
+        return item;
+    }
+
+    public static void write(Context context, WordItem item) {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        File tmp = new File(context.getFilesDir(), FILE_NAME + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(HistoryLog.encode(item));
+        } catch (IOException e) {
+            Log.e(TAG, "Snapshot write failed: " + e.getMessage());
+            return;
+        }
+        if (!tmp.renameTo(file)) Log.e(TAG, "Snapshot rename failed");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.dailywords;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prefix trie over lowercased words. Children are kept in sorted arrays, so a node costs two
+ * small arrays rather than a map, and prefix results come out in alphabetical order.
+ */
+public class WordTrie {
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static class Node {
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        boolean terminal;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) return children[i];
+            int at = -i - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = c;
+            newChildren[at] = new Node();
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[at];
+        }
+    }
+
+    private final Node root = new Node();
+    private int size;
+
+    /** Adds a word; returns false if it was already present or blank. */
+    public synchronized boolean add(String word) {
+        String key = normalize(word);
+        if (key.isEmpty()) return false;
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) node = node.childOrCreate(key.charAt(i));
+        if (node.terminal) return false;
+        node.terminal = true;
+        size++;
+        return true;
+    }
+
+    public synchronized boolean contains(String word) {
+        Node node = find(normalize(word));
+        return node != null && node.terminal;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Up to {@code limit} words starting with {@code prefix}, in alphabetical order. */
+    public synchronized List<String> withPrefix(String prefix, int limit) {
+        List<String> out = new ArrayList<>(Math.min(limit, 16));
+        String key = normalize(prefix);
+        Node node = find(key);
+        if (node != null && limit > 0) collect(node, new StringBuilder(key), out, limit);
+        return out;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) node = node.child(key.charAt(i));
+        return node;
+    }
+
+    private static void collect(Node node, StringBuilder path, List<String> out, int limit) {
+        if (node.terminal) out.add(path.toString());
+        for (int i = 0; i < node.labels.length && out.size() < limit; i++) {
+            path.append(node.labels[i]);
+            collect(node.children[i], path, out, limit);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    private static String normalize(String word) {
+        return word == null ? "" : word.trim().toLowerCase(Locale.ROOT);
+    }
+}
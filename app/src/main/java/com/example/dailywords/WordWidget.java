@@ -0,0 +1,54 @@
+package com.example.dailywords;
+
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.appwidget.AppWidgetProvider;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.view.View;
+import android.widget.RemoteViews;
+
+/**
+ * Home-screen widget showing the current word. It renders from the {@link WordSnapshot} file
+ * alone: no history, no preferences JSON, no networking. {@link WordRepository} pushes each
+ * new word here as it is saved, so the system's own updates are only needed after a reboot
+ * or when a widget is first placed.
+ */
+public class WordWidget extends AppWidgetProvider {
+
+    @Override
+    public void onUpdate(Context context, AppWidgetManager manager, int[] widgetIds) {
+        // A few hundred bytes; cheap enough for the receiver's thread
+        render(context, manager, widgetIds, WordSnapshot.read(context));
+    }
+
+    /** Pushes {@code current} to every placed widget; does nothing if there are none. */
+    static void update(Context context, WordItem current) {
+        AppWidgetManager manager = AppWidgetManager.getInstance(context);
+        if (manager == null) return;
+        int[] ids = manager.getAppWidgetIds(new ComponentName(context, WordWidget.class));
+        if (ids.length > 0) render(context, manager, ids, current);
+    }
+
+    private static void render(Context context, AppWidgetManager manager, int[] widgetIds, WordItem current) {
+        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_word);
+        if (current == null) {
+            views.setTextViewText(R.id.tvWidgetWord, "No word yet");
+            views.setViewVisibility(R.id.tvWidgetPos, View.GONE);
+            views.setTextViewText(R.id.tvWidgetMeaning, "Open DailyWords to get today's word");
+        } else {
+            views.setTextViewText(R.id.tvWidgetWord, current.getWord());
+            views.setTextViewText(R.id.tvWidgetPos, current.getPos());
+            views.setViewVisibility(R.id.tvWidgetPos, current.getPos().isEmpty() ? View.GONE : View.VISIBLE);
+            views.setTextViewText(R.id.tvWidgetMeaning, current.getMeaning());
+        }
+
+        Intent open = new Intent(context, MainActivity.class);
+        open.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        views.setOnClickPendingIntent(R.id.widgetRoot, PendingIntent.getActivity(
+                context, 0, open, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE));
+
+        manager.updateAppWidget(widgetIds, views);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.dailywords
+
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import okio.Buffer
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.IOException
+
+/**
+ * [AudioCache] downloads against a [MockWebServer]: resuming a `.part` with a Range request,
+ * and starting over whenever the server's answer doesn't line up with what is on disk.
+ */
+class AudioCacheTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private val server = MockWebServer()
+    private val client = OkHttpClient()
+    private val clip = ByteArray(64 * 1024) { (it * 31 + 7).toByte() }
+    private lateinit var dir: File
+    private lateinit var cache: AudioCache
+    private lateinit var url: String
+
+    @Before
+    fun setUp() {
+        server.start()
+        dir = tmp.newFolder()
+        cache = AudioCache(dir, 1024 * 1024, 256 * 1024)
+        url = server.url("/audio/river.mp3").toString()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    private fun body(bytes: ByteArray) = Buffer().write(bytes)
+
+    private fun part(): File? = dir.listFiles()?.firstOrNull { it.name.endsWith(".part") }
+
+    // Leaves a .part of `length` bytes, as an interrupted download would
+    private fun leavePart(length: Int) {
+        server.enqueue(MockResponse().setBody(body(clip)))
+        cache.fetch(client, url)
+        val done = dir.listFiles()!!.single()
+        File(dir, done.name + ".part").writeBytes(clip.copyOf(length))
+        done.delete()
+        server.takeRequest()
+    }
+
+    @Test
+    fun downloadsOnceThenServesFromDisk() {
+        server.enqueue(MockResponse().setBody(body(clip)))
+        val first = cache.fetch(client, url)
+        val second = cache.fetch(client, url)
+        assertArrayEquals(clip, first.readBytes())
+        assertEquals(first, second)
+        assertEquals(1, server.requestCount)
+        assertNull(part())
+    }
+
+    @Test
+    fun interruptedDownloadKeepsItsPart() {
+        server.enqueue(MockResponse().setBody(body(clip)).setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY))
+        try {
+            cache.fetch(client, url)
+            fail("expected the transfer to fail")
+        } catch (e: IOException) {
+        }
+        assertNull(cache.get(url))
+        val part = part()!!
+        assertArrayEquals(clip.copyOf(part.length().toInt()), part.readBytes())
+    }
+
+    @Test
+    fun resumesFromPartWithRange() {
+        leavePart(20_000)
+        server.enqueue(MockResponse().setResponseCode(206)
+                .setHeader("Content-Range", "bytes 20000-${clip.size - 1}/${clip.size}")
+                .setBody(body(clip.copyOfRange(20_000, clip.size))))
+
+        val file = cache.fetch(client, url)
+        assertEquals("bytes=20000-", server.takeRequest().getHeader("Range"))
+        assertArrayEquals(clip, file.readBytes())
+        assertTrue(cache.stats().contains("resumed=1"))
+    }
+
+    @Test
+    fun restartsWhenRangeStartDoesNotMatchPart() {
+        leavePart(20_000)
+        server.enqueue(MockResponse().setResponseCode(206)
+                .setHeader("Content-Range", "bytes 0-${clip.size - 1}/${clip.size}")
+                .setBody(body(clip)))
+        server.enqueue(MockResponse().setBody(body(clip)))
+
+        val file = cache.fetch(client, url)
+        assertEquals("bytes=20000-", server.takeRequest().getHeader("Range"))
+        assertNull(server.takeRequest().getHeader("Range"))
+        assertArrayEquals(clip, file.readBytes())
+        assertNull(part())
+    }
+
+    @Test
+    fun keepsCompletePartOnUnsatisfiableRange() {
+        leavePart(clip.size)
+        server.enqueue(MockResponse().setResponseCode(416).setHeader("Content-Range", "bytes */${clip.size}"))
+
+        val file = cache.fetch(client, url)
+        assertEquals(2, server.requestCount)
+        assertArrayEquals(clip, file.readBytes())
+    }
+
+    @Test
+    fun restartsOnUnsatisfiableRangeForAnotherLength() {
+        leavePart(clip.size)
+        val changed = clip.copyOf(clip.size / 2)
+        server.enqueue(MockResponse().setResponseCode(416).setHeader("Content-Range", "bytes */${changed.size}"))
+        server.enqueue(MockResponse().setBody(body(changed)))
+
+        val file = cache.fetch(client, url)
+        assertArrayEquals(changed, file.readBytes())
+    }
+
+    @Test
+    fun rejectsOversizedClip() {
+        server.enqueue(MockResponse().setBody(body(ByteArray(300 * 1024))))
+        try {
+            cache.fetch(client, url)
+            fail("expected the clip to be rejected")
+        } catch (e: IOException) {
+        }
+        assertNull(cache.get(url))
+        assertNull(part())
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.dailywords
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+
+/**
+ * [BloomFilter] sizing and persistence, and how [SeenWords.catchUp] keeps a filter in step with
+ * history: appending what is new, and starting over when history shrinks or the rate changes.
+ */
+class BloomFilterTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private fun bytes(filter: BloomFilter): ByteArray {
+        val out = ByteArrayOutputStream()
+        filter.writeTo(DataOutputStream(out))
+        return out.toByteArray()
+    }
+
+    private fun read(bytes: ByteArray, maxBytes: Long = bytes.size.toLong()) =
+        BloomFilter.readFrom(DataInputStream(ByteArrayInputStream(bytes)), maxBytes)
+
+    private fun assertRejected(bytes: ByteArray, maxBytes: Long = bytes.size.toLong()) {
+        try {
+            read(bytes, maxBytes)
+            fail("expected the filter to be rejected")
+        } catch (e: IOException) {
+        }
+    }
+
+    private fun history(words: List<String>) =
+        HistoryLog(tmp.newFolder()).apply { appendAll(words.map { WordItem(it, "noun", "m", "e", 1L) }) }
+
+    @Test
+    fun falsePositiveRateStaysNearTarget() {
+        val filter = BloomFilter(10_000, 0.01)
+        (0 until 10_000).forEach { filter.add("seen$it") }
+        assertTrue((0 until 10_000).all { filter.mightContain("seen$it") })
+        val hits = (0 until 100_000).count { filter.mightContain("unseen$it") }
+        assertTrue("false positives $hits / 100000", hits < 2_000)
+        assertFalse(filter.isSaturated())
+    }
+
+    @Test
+    fun roundTripsThroughItsFile() {
+        val filter = BloomFilter(2_000, 0.005)
+        (0 until 1_500).forEach { filter.add("w$it") }
+        val copy = read(bytes(filter))
+        assertEquals(1_500, copy.count())
+        assertEquals(2_000, copy.expected())
+        assertEquals(0.005, copy.fpp(), 0.0)
+        assertTrue((0 until 1_500).all { copy.mightContain("w$it") })
+    }
+
+    @Test
+    fun rejectsHeaderLargerThanItsFile() {
+        val small = bytes(BloomFilter(1_000, 0.01))
+        // A consistent header for a filter far bigger than the bytes that follow it
+        val header = DataInputStream(ByteArrayInputStream(small))
+        val out = ByteArrayOutputStream()
+        DataOutputStream(out).apply {
+            writeInt(header.readInt())
+            writeInt(header.readInt())
+            writeInt(200_000_000)
+            writeDouble(0.01)
+            val bits = BloomFilter.bitsFor(200_000_000, 0.01)
+            writeInt(bits)
+            writeInt(BloomFilter.hashesFor(bits, 200_000_000))
+            writeInt(0)
+        }
+        assertRejected(out.toByteArray() + ByteArray(64))
+        assertRejected(small.copyOf(small.size - 8))
+        assertRejected(small, small.size - 8L)
+    }
+
+    @Test
+    fun rejectsHeaderThatDisagreesWithItsSizing() {
+        val bytes = bytes(BloomFilter(1_000, 0.01))
+        bytes[23] = (bytes[23] + 1).toByte() // low byte of numBits
+        assertRejected(bytes)
+    }
+
+    @Test
+    fun catchUpAddsOnlyNewEntries() {
+        val log = history((0 until 300).map { "word$it" })
+        val start = SeenWords.catchUp(null, 0, log, 200, 0.01)
+        assertEquals(200, start.count())
+
+        val caughtUp = SeenWords.catchUp(start, 200, log, 300, 0.01)
+        assertSame(start, caughtUp)
+        assertEquals(300, caughtUp.count())
+        assertTrue((0 until 300).all { caughtUp.mightContain(LookupCache.key("word$it")) })
+    }
+
+    @Test
+    fun rebuildsWhenRateChanges() {
+        val log = history((0 until 50).map { "word$it" })
+        val old = SeenWords.catchUp(null, 0, log, 50, 0.05)
+        val rebuilt = SeenWords.catchUp(old, 50, log, 50, 0.001)
+        assertNotSame(old, rebuilt)
+        assertEquals(0.001, rebuilt.fpp(), 1e-9)
+        assertEquals(50, rebuilt.count())
+    }
+
+    @Test
+    fun rebuildsWhenHistoryShrinks() {
+        val filter = SeenWords.catchUp(null, 0, history((0 until 40).map { "old$it" }), 40, 0.01)
+        val rewritten = history((0 until 10).map { "new$it" })
+        val rebuilt = SeenWords.catchUp(filter, 40, rewritten, 10, 0.01)
+        assertEquals(10, rebuilt.count())
+        assertTrue((0 until 10).all { rebuilt.mightContain(LookupCache.key("new$it")) })
+    }
+
+    @Test
+    fun rebuildsLargerBeforeSaturating() {
+        val log = history((0 until 3_000).map { "word$it" })
+        val small = SeenWords.catchUp(null, 0, log, 100, 0.01)
+        val grown = SeenWords.catchUp(small, 100, log, 3_000, 0.01)
+        assertNotSame(small, grown)
+        assertTrue(grown.expected() >= 6_000)
+        assertEquals(3_000, grown.count())
+    }
+}
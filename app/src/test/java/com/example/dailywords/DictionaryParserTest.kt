@@ -0,0 +1,125 @@
+package com.example.dailywords
+
+import com.google.gson.JsonParser
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Checks the streaming [DictionaryParser] against the tree-based parsing WordFetcher used before.
+ */
+class DictionaryParserTest {
+
+    private val corpus = mapOf(
+        "typical" to """
+            [{"word":"river","phonetic":"/ˈɹɪvə/","phonetics":[{"text":"/ˈɹɪvə/","audio":"https://x/river.mp3"}],
+              "meanings":[{"partOfSpeech":"noun","definitions":[
+                  {"definition":"A large and often winding stream.","synonyms":[],"antonyms":[],"example":"The river flooded."},
+                  {"definition":"A large amount of flowing liquid.","synonyms":["flood"],"antonyms":[]}],
+                "synonyms":["stream"],"antonyms":[]},
+               {"partOfSpeech":"verb","definitions":[{"definition":"To flow.","synonyms":[],"antonyms":[]}]}],
+              "license":{"name":"CC BY-SA 3.0","url":"https://creativecommons.org/licenses/by-sa/3.0"},
+              "sourceUrls":["https://en.wiktionary.org/wiki/river"]},
+             {"word":"river","meanings":[{"partOfSpeech":"noun","definitions":[{"definition":"Second entry."}]}]}]
+        """,
+        "no example" to """
+            [{"word":"gist","meanings":[{"partOfSpeech":"noun","definitions":[{"definition":"The main point."}]}]}]
+        """,
+        "first meaning has no definitions" to """
+            [{"word":"x","meanings":[
+                {"partOfSpeech":"noun","definitions":[]},
+                {"partOfSpeech":"verb","definitions":[{"definition":"To do x.","example":"x it"}]}]}]
+        """,
+        "definitions before partOfSpeech" to """
+            [{"word":"x","meanings":[{"definitions":[{"example":"ex first","definition":"def second"}],"partOfSpeech":"adjective"}]}]
+        """,
+        "meanings before word" to """
+            [{"meanings":[{"partOfSpeech":"noun","definitions":[{"definition":"d"}]}],"word":"x"}]
+        """,
+        "all meanings empty" to """
+            [{"word":"x","meanings":[{"partOfSpeech":"noun","definitions":[]},{"partOfSpeech":"verb","definitions":[]}]}]
+        """,
+        "no meanings" to """[{"word":"x","phonetics":[]}]""",
+        "empty meanings" to """[{"word":"x","meanings":[]}]""",
+        "empty array" to "[]",
+        "not found object" to """
+            {"title":"No Definitions Found","message":"Sorry pal, we couldn't find definitions for the word you were looking for.","resolution":"You can try the search again at later time or head to the web instead."}
+        """,
+        "later meaning without partOfSpeech" to """
+            [{"word":"x","meanings":[{"partOfSpeech":"noun","definitions":[]},{"definitions":[{"definition":"d"}]}]}]
+        """,
+        "meaning without definitions key" to """
+            [{"word":"x","meanings":[{"partOfSpeech":"noun"},{"partOfSpeech":"verb","definitions":[{"definition":"d"}]}]}]
+        """,
+        "first definition without text" to """
+            [{"word":"x","meanings":[{"partOfSpeech":"noun","definitions":[{"example":"only an example"},{"definition":"d"}]}]}]
+        """,
+        "unicode and escapes" to """
+            [{"word":"café","meanings":[{"partOfSpeech":"noun","definitions":[{"definition":"A \"coffee\" shop — small.","example":"Line1\nLine2"}]}]}]
+        """,
+        "malformed before answer" to """[{"word":"x","meanings":[{"partOfSpeech":"noun","definitions":[{"definition" "d"}]}]}]""",
+        "truncated before answer" to """[{"word":"x","meanings":[{"partOfSpeech":"no""",
+        "empty body" to "",
+        "html error page" to "<html><body>502 Bad Gateway</body></html>",
+    )
+
+    @Test
+    fun matchesTreeParsingOnCorpus() {
+        for ((name, body) in corpus) {
+            val expected = treeParse("w", body)
+            val actual = DictionaryParser.parse("w", body)
+            assertEquals("$name: pos", expected[0], actual.pos)
+            assertEquals("$name: meaning", expected[1], actual.meaning)
+            assertEquals("$name: example", expected[2], actual.example)
+        }
+    }
+
+    @Test
+    fun matchesTreeParsingOnLargeEntry() {
+        val filler = (1..2000).joinToString(",") {
+            """{"definition":"Sense $it.","synonyms":["a$it","b$it"],"antonyms":[],"example":"Use $it."}"""
+        }
+        val phonetics = (1..200).joinToString(",") { """{"text":"/p$it/","audio":"https://x/$it.mp3"}""" }
+        val body = """[{"word":"set","phonetics":[$phonetics],"meanings":[
+            {"partOfSpeech":"noun","definitions":[$filler]},
+            {"partOfSpeech":"verb","definitions":[$filler]}]}]"""
+
+        val expected = treeParse("set", body)
+        val actual = DictionaryParser.parse("set", body)
+        assertEquals(expected.toList(), listOf(actual.pos, actual.meaning, actual.example))
+        assertEquals("Sense 1.", actual.meaning)
+    }
+
+    @Test
+    fun stopsReadingOnceAnswerIsKnown() {
+        // Tree parsing rejects the whole body; the stream never reaches the broken tail
+        val body = """[{"word":"x","meanings":[{"partOfSpeech":"noun","definitions":[{"definition":"d","example":"e"}]},{"""
+        val actual = DictionaryParser.parse("x", body)
+        assertEquals("noun", actual.pos)
+        assertEquals("d", actual.meaning)
+        assertEquals("e", actual.example)
+    }
+
+    // The parsing WordFetcher used before DictionaryParser, kept as the reference
+    private fun treeParse(word: String, body: String): Array<String> {
+        var pos = ""
+        var def = "Not found"
+        var ex = "No example"
+        try {
+            val arr = JsonParser.parseString(body).asJsonArray
+            val meanings = arr[0].asJsonObject.getAsJsonArray("meanings")
+            for (i in 0 until meanings.size()) {
+                val meaningObj = meanings[i].asJsonObject
+                pos = meaningObj["partOfSpeech"].asString
+                val defs = meaningObj.getAsJsonArray("definitions")
+                if (defs.size() > 0) {
+                    val defObj = defs[0].asJsonObject
+                    if (defObj.has("definition")) def = defObj["definition"].asString
+                    if (defObj.has("example")) ex = defObj["example"].asString
+                    break
+                }
+            }
+        } catch (e: Exception) {
+        }
+        return arrayOf(pos, def, ex)
+    }
+}
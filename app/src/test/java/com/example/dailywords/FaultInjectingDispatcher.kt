@@ -0,0 +1,146 @@
+package com.example.dailywords
+
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.RecordedRequest
+import java.util.Random
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Fault mix for one endpoint. Rates are independent probabilities checked in declaration order;
+ * whatever is left over gets a normal answer. Latency and slow bodies stack on any answer.
+ */
+data class Faults(
+    val latencyMs: Long = 0,
+    val latencyJitterMs: Long = 0,
+    val slowBodyRate: Double = 0.0,
+    val notFoundRate: Double = 0.0,
+    val tooManyRequestsRate: Double = 0.0,
+    val serverErrorRate: Double = 0.0,
+    val malformedRate: Double = 0.0,
+    val hugeRate: Double = 0.0,
+    val hugeBytes: Int = 2 * 1024 * 1024,
+)
+
+/**
+ * Stands in for both APIs on one MockWebServer: `/api?words=n` answers like random-word-api
+ * with words never handed out before, `/api/v2/entries/en/<word>` like dictionaryapi.dev, and
+ * `/media/<word>.mp3` serves a small pronunciation clip. Faults are drawn per request from a
+ * seeded Random, and every injected fault is counted so a run can be checked against them.
+ */
+class FaultInjectingDispatcher(seed: Long = 42) : Dispatcher() {
+    @Volatile var randomWordFaults = Faults()
+    @Volatile var dictionaryFaults = Faults()
+
+    private val random = Random(seed)
+    private val nextWord = AtomicInteger()
+    private val injected = ConcurrentHashMap<String, AtomicInteger>()
+
+    override fun dispatch(request: RecordedRequest): MockResponse {
+        val url = request.requestUrl ?: return MockResponse().setResponseCode(400)
+        val path = url.encodedPath
+        return when {
+            path.startsWith(DICTIONARY_PATH) -> answer("dictionary", dictionaryFaults) {
+                dictionaryEntry(path.removePrefix(DICTIONARY_PATH), url.scheme + "://" + url.host + ":" + url.port)
+            }
+            path == RANDOM_WORD_PATH -> answer("random-word", randomWordFaults) {
+                val count = url.queryParameter("words")?.toIntOrNull() ?: 1
+                (1..count).joinToString(",", "[", "]") { "\"load${word(nextWord.incrementAndGet())}\"" }
+            }
+            path.startsWith("/media/") -> MockResponse().setBody(okio.Buffer().write(ByteArray(8 * 1024)))
+            else -> MockResponse().setResponseCode(404)
+        }
+    }
+
+    fun injected(endpoint: String, fault: String): Int = injected["$endpoint/$fault"]?.get() ?: 0
+
+    fun injectedReport(): String =
+        injected.entries.sortedBy { it.key }.joinToString("\n") { "  %-28s %d".format(it.key, it.value.get()) }
+
+    private fun answer(endpoint: String, faults: Faults, body: () -> String): MockResponse {
+        val roll: Double
+        val delay: Long
+        val slow: Boolean
+        synchronized(random) {
+            roll = random.nextDouble()
+            delay = faults.latencyMs + if (faults.latencyJitterMs > 0) random.nextInt(faults.latencyJitterMs.toInt() + 1) else 0
+            slow = random.nextDouble() < faults.slowBodyRate
+        }
+        var edge = 0.0
+        fun hit(rate: Double): Boolean { edge += rate; return roll < edge }
+
+        val response = when {
+            hit(faults.notFoundRate) -> count(endpoint, "404").let {
+                MockResponse().setResponseCode(404)
+                    .setBody("""{"title":"No Definitions Found","message":"Sorry pal","resolution":"Try again"}""")
+            }
+            hit(faults.tooManyRequestsRate) -> count(endpoint, "429").let {
+                MockResponse().setResponseCode(429).setHeader("Retry-After", "1")
+            }
+            hit(faults.serverErrorRate) -> count(endpoint, "5xx").let {
+                MockResponse().setResponseCode(if (roll < edge - faults.serverErrorRate / 2) 500 else 503)
+            }
+            hit(faults.malformedRate) -> count(endpoint, "malformed").let {
+                MockResponse().setBody(body().let { it.substring(0, it.length / 2) })
+            }
+            hit(faults.hugeRate) -> count(endpoint, "huge").let {
+                MockResponse().setBody(if (endpoint == "dictionary") hugeEntry(faults.hugeBytes) else body())
+            }
+            else -> MockResponse().setBody(body())
+        }
+        if (delay > 0) response.setHeadersDelay(delay, TimeUnit.MILLISECONDS)
+        if (slow) {
+            count(endpoint, "slow-body")
+            response.throttleBody(1024, 20, TimeUnit.MILLISECONDS)
+        }
+        return response.setHeader("Content-Type", "application/json")
+    }
+
+    private fun count(endpoint: String, fault: String) {
+        injected.getOrPut("$endpoint/$fault") { AtomicInteger() }.incrementAndGet()
+    }
+
+    companion object {
+        const val RANDOM_WORD_PATH = "/api"
+        const val DICTIONARY_PATH = "/api/v2/entries/en/"
+
+        /** Letters only, so generated words look like words to every parser on the way. */
+        fun word(n: Int): String {
+            val out = StringBuilder()
+            var v = n
+            do {
+                out.append('a' + v % 26)
+                v /= 26
+            } while (v > 0)
+            return out.toString()
+        }
+
+        fun definitionOf(word: String) = "Definition of $word."
+
+        fun dictionaryEntry(word: String, origin: String) = """
+            [{"word":"$word","phonetic":"/$word/",
+              "phonetics":[{"text":"/$word/","audio":"$origin/media/$word-us.mp3"}],
+              "meanings":[{"partOfSpeech":"noun","definitions":[
+                  {"definition":"${definitionOf(word)}","example":"An example with $word.","synonyms":[],"antonyms":[]},
+                  {"definition":"Another sense of $word.","synonyms":["other"],"antonyms":[]}],
+                "synonyms":[],"antonyms":[]}],
+              "sourceUrls":["https://en.wiktionary.org/wiki/$word"]}]
+        """.trimIndent()
+
+        // Valid JSON well past WordFetcher's whole-body limit, so it takes the streaming path
+        fun hugeEntry(bytes: Int): String {
+            val out = StringBuilder(bytes + 256)
+            out.append("""[{"word":"huge","meanings":[{"partOfSpeech":"noun","definitions":[""")
+            var i = 0
+            while (out.length < bytes) {
+                if (i > 0) out.append(',')
+                out.append("""{"definition":"Sense number $i of a very long entry.","synonyms":[],"antonyms":[]}""")
+                i++
+            }
+            out.append("]}]}]")
+            return out.toString()
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.dailywords
+
+import android.content.Context
+import android.os.Looper
+import androidx.test.core.app.ApplicationProvider
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.AfterClass
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
+import org.junit.BeforeClass
+import org.junit.FixMethodOrder
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.MethodSorters
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import org.robolectric.annotation.Config
+import java.io.InterruptedIOException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs the real fetch pipeline (random word, dictionary lookup and parse, save into the
+ * repository, history and caches) against a local [MockWebServer] with injected faults, and
+ * prints throughput, latency percentiles and how each kind of failure was handled.
+ *
+ * It runs for several seconds and asserts on seeded but timing-dependent outcomes, so the
+ * ordinary unit test run leaves it out; run it with
+ * `./gradlew testDebugUnitTest -Pharness --tests '*FetchPipelineHarnessTest'`.
+ * The load phases run for `-Pharness.seconds` (default 5) on `-Pharness.threads` (default 8).
+ * Methods run in name order: the breaker-tripping phase has to come last, since the breakers
+ * are process-wide and stay open for a minute.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [34])
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+class FetchPipelineHarnessTest {
+
+    private val context: Context = ApplicationProvider.getApplicationContext()
+    private val seconds = System.getProperty("harness.seconds")?.toLongOrNull() ?: 5
+    private val threads = System.getProperty("harness.threads")?.toIntOrNull() ?: 8
+
+    companion object {
+        private val dispatcher = FaultInjectingDispatcher()
+        private val server = MockWebServer()
+
+        @BeforeClass
+        @JvmStatic
+        fun startServer() {
+            server.dispatcher = dispatcher
+            server.start()
+            WordFetcher.setBaseUrls(
+                server.url(FaultInjectingDispatcher.RANDOM_WORD_PATH).toString(),
+                server.url(FaultInjectingDispatcher.DICTIONARY_PATH).toString(),
+            )
+        }
+
+        @AfterClass
+        @JvmStatic
+        fun stopServer() {
+            server.shutdown()
+            WordFetcher.setBaseUrls(WordFetcher.DEFAULT_RANDOM_WORD_API, WordFetcher.DEFAULT_DICTIONARY_API)
+        }
+    }
+
+    @Test
+    fun a_fetchWordSavesAWordFromTheServer() {
+        dispatcher.randomWordFaults = Faults()
+        dispatcher.dictionaryFaults = Faults(latencyMs = 20)
+
+        val done = CountDownLatch(1)
+        WordFetcher.fetchWord(context, false) { done.countDown() }
+        awaitWithMainLooper(done, 30)
+
+        val current = WordRepository.get(context).current()
+        assertNotNull(current)
+        assertTrue(current!!.word.startsWith("load"))
+        assertEquals(FaultInjectingDispatcher.definitionOf(current.word), current.meaning)
+        assertEquals("noun", current.pos)
+    }
+
+    @Test
+    fun b_sustainedLoadWithMixedFaults() {
+        dispatcher.randomWordFaults = Faults(latencyMs = 5, latencyJitterMs = 20, serverErrorRate = 0.01)
+        // Transient rates stay low enough that five in a row (which would open the breaker) is unlikely
+        dispatcher.dictionaryFaults = Faults(
+            latencyMs = 10, latencyJitterMs = 40, slowBodyRate = 0.05,
+            notFoundRate = 0.10, tooManyRequestsRate = 0.02, serverErrorRate = 0.02,
+            malformedRate = 0.03, hugeRate = 0.02,
+        )
+        val historyBefore = HistoryStore.get(context).size()
+
+        val report = runPipeline()
+        println("== sustained load, mixed faults ==\n$report")
+        println("injected:\n${dispatcher.injectedReport()}")
+        println(WordFetcher.networkMetrics().report())
+
+        assertEquals("unexpected failures: ${report.unexpected}", 0, report.unexpected.size)
+        assertTrue("nothing saved", report.count("saved") > 0)
+        // Unknown words, unparseable and oversized bodies are answers, not errors
+        assertTrue(report.count("no-definition") > 0)
+        assertTrue(report.outcomes.keys.none { "404" in it || "Parse" in it })
+        assertTrue(HistoryStore.get(context).size() >= historyBefore + report.count("saved"))
+        drainMainLooper()
+    }
+
+    @Test
+    fun c_concurrentFetchWordCallsShareRefreshes() {
+        dispatcher.randomWordFaults = Faults(latencyMs = 5, latencyJitterMs = 20)
+        dispatcher.dictionaryFaults = Faults(latencyMs = 10, latencyJitterMs = 40, notFoundRate = 0.10, serverErrorRate = 0.02)
+
+        // The full path: fetchWord joins or starts a RefreshJob, which draws, races and saves
+        val report = PipelineLoad(threads, seconds * 1000).run(onWait = ::drainMainLooper) {
+            val before = WordRepository.get(context).current()?.word
+            val done = CountDownLatch(1)
+            WordFetcher.fetchWord(context, false) { done.countDown() }
+            if (!done.await(30, TimeUnit.SECONDS)) throw InterruptedIOException("refresh never completed")
+            if (WordRepository.get(context).current()?.word != before) "refreshed" else "unchanged"
+        }
+        println("== concurrent fetchWord ==\n$report")
+
+        assertEquals("unexpected failures: ${report.unexpected}", 0, report.unexpected.size)
+        assertEquals("refreshes that never completed", 0, report.count("timeout"))
+        assertTrue("nothing refreshed", report.count("refreshed") > 0)
+        drainMainLooper()
+    }
+
+    @Test
+    fun d_outageOpensTheBreakerAndFailsFast() {
+        dispatcher.randomWordFaults = Faults()
+        dispatcher.dictionaryFaults = Faults(latencyMs = 50, serverErrorRate = 1.0)
+
+        val report = runPipeline()
+        println("== dictionary outage ==\n$report")
+
+        assertEquals("unexpected failures: ${report.unexpected}", 0, report.unexpected.size)
+        assertEquals(0, report.count("saved"))
+        // After a handful of real 5xx answers the rest are refused without touching the network
+        assertTrue(report.count("breaker-open") > report.iterations / 2)
+        assertTrue(dispatcher.injected("dictionary", "5xx") < report.iterations / 2)
+        drainMainLooper()
+    }
+
+    // One iteration is the refresh job's work for one word, minus the racing: draw, look up, save
+    private fun runPipeline(): PipelineLoad.Report =
+        PipelineLoad(threads, seconds * 1000).run {
+            val word = WordFetcher.fetchRandomWords(1, 5_000).first()
+            val item = WordFetcher.resolveWord(context, word, 5_000)
+            if (!WordFetcher.hasDefinition(item)) {
+                "no-definition"
+            } else {
+                WordFetcher.saveWord(context, item.word, item.pos, item.meaning, item.example, false, 0)
+                "saved"
+            }
+        }
+
+    // Completion callbacks are posted to the main looper, which Robolectric only runs on request
+    private fun awaitWithMainLooper(latch: CountDownLatch, timeoutSeconds: Long) {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds)
+        while (latch.count > 0) {
+            assertTrue("timed out", System.nanoTime() < deadline)
+            shadowOf(Looper.getMainLooper()).idle()
+            latch.await(10, TimeUnit.MILLISECONDS)
+        }
+    }
+
+    private fun drainMainLooper() {
+        shadowOf(Looper.getMainLooper()).idle()
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.dailywords
+
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.RandomAccessFile
+
+/**
+ * Crash recovery in [HistoryLog]: whatever state a crash leaves the two files in, reopening
+ * keeps every complete record and nothing else, and the log stays appendable.
+ */
+class HistoryLogTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private fun item(i: Int) = WordItem("word$i", "noun", "meaning $i", "example $i", i.toLong())
+
+    private fun open(dir: File) = HistoryLog(dir)
+
+    private fun fill(dir: File, n: Int) {
+        val log = open(dir)
+        log.appendAll((0 until n).map { item(it) })
+        log.close()
+    }
+
+    private fun words(log: HistoryLog) = log.read(0, log.size()).map { it.word }
+
+    private fun words(range: IntRange) = range.map { "word$it" }
+
+    private fun cut(file: File, bytes: Long) = RandomAccessFile(file, "rw").use { it.setLength(it.length() - bytes) }
+
+    @Test
+    fun reopensWhatWasAppended() {
+        val dir = tmp.newFolder()
+        fill(dir, 3)
+        val log = open(dir)
+        assertEquals(words(0..2), words(log))
+        assertEquals("meaning 1", log.get(1).meaning)
+        assertEquals("word2", log.getNewest(0).word)
+    }
+
+    @Test
+    fun dropsTornTailRecord() {
+        val dir = tmp.newFolder()
+        fill(dir, 3)
+        cut(File(dir, "history.log"), 5)
+
+        var log = open(dir)
+        assertEquals(words(0..1), words(log))
+        assertEquals(16L, File(dir, "history.idx").length())
+        log.append(item(9))
+        log.close()
+
+        log = open(dir)
+        assertEquals(words(0..1) + "word9", words(log))
+    }
+
+    @Test
+    fun dropsRecordWithBadChecksum() {
+        val dir = tmp.newFolder()
+        fill(dir, 3)
+        RandomAccessFile(File(dir, "history.log"), "rw").use {
+            it.seek(it.length() - 10)
+            val b = it.read()
+            it.seek(it.length() - 10)
+            it.write(b xor 0xFF)
+        }
+        assertEquals(words(0..1), words(open(dir)))
+    }
+
+    @Test
+    fun indexesRecordsThatMissedTheIndex() {
+        val dir = tmp.newFolder()
+        fill(dir, 5)
+        val idx = File(dir, "history.idx")
+        cut(idx, 3 * 8 + 4) // three whole entries and half of another
+
+        val log = open(dir)
+        assertEquals(words(0..4), words(log))
+        assertEquals(40L, idx.length())
+        assertEquals("word3", log.get(3).word)
+    }
+
+    @Test
+    fun dropsIndexEntriesPastTheLog() {
+        val dir = tmp.newFolder()
+        fill(dir, 4)
+        val logFile = File(dir, "history.log")
+        val firstTwo = RandomAccessFile(File(dir, "history.idx"), "r").use { it.seek(16); it.readLong() }
+        RandomAccessFile(logFile, "rw").use { it.setLength(firstTwo) }
+
+        val log = open(dir)
+        assertEquals(words(0..1), words(log))
+        assertEquals(16L, File(dir, "history.idx").length())
+    }
+
+    @Test
+    fun resetsOnBadHeader() {
+        val dir = tmp.newFolder()
+        fill(dir, 3)
+        RandomAccessFile(File(dir, "history.log"), "rw").use { it.writeInt(0) }
+
+        var log = open(dir)
+        assertEquals(0, log.size())
+        log.append(item(7))
+        log.close()
+        log = open(dir)
+        assertEquals(listOf("word7"), words(log))
+    }
+
+    @Test
+    fun reopensLargeLog() {
+        val dir = tmp.newFolder()
+        fill(dir, 20_000)
+        val log = open(dir)
+        assertEquals(20_000, log.size())
+        assertEquals("word12345", log.get(12345).word)
+        assertEquals("word19999", log.getNewest(0).word)
+    }
+
+    @Test
+    fun keepsNullFieldsReadableAsEmpty() {
+        val dir = tmp.newFolder()
+        val log = open(dir)
+        log.append(WordItem("legacy", "old meaning"))
+        assertEquals("", log.get(0).pos)
+        assertEquals("", log.get(0).example)
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.dailywords
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+
+/**
+ * Export/import round trips through [HistoryTransfer] in every format, and the merge rules:
+ * entries already in history, or repeated within the file, are skipped.
+ */
+class HistoryTransferTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private fun item(i: Int) = WordItem("word$i", "noun", "meaning of word $i", "an example for word $i", 1_000L + i)
+
+    private fun log(items: List<WordItem>) = HistoryLog(tmp.newFolder()).apply { appendAll(items) }
+
+    private fun contents(log: HistoryLog) =
+        log.read(0, log.size()).map { listOf(it.word, it.pos, it.meaning, it.example, it.savedAt.toString()) }
+
+    private fun export(log: HistoryLog, format: String): ByteArray {
+        val out = ByteArrayOutputStream()
+        when (format) {
+            "json" -> HistoryTransfer.exportJson(log, out)
+            else -> HistoryTransfer.exportBinary(log, out, format == "gzip")
+        }
+        return out.toByteArray()
+    }
+
+    private fun import(log: HistoryLog, bytes: ByteArray) = HistoryTransfer.importFrom(log, ByteArrayInputStream(bytes))
+
+    @Test
+    fun roundTripsEveryFormat() {
+        val source = log((0 until 1200).map { item(it) })
+        for (format in listOf("binary", "gzip", "json")) {
+            val target = log(emptyList())
+            val result = import(target, export(source, format))
+            assertEquals(format, 1200, result.read)
+            assertEquals(format, 1200, result.added)
+            assertEquals(format, contents(source), contents(target))
+        }
+    }
+
+    @Test
+    fun gzipIsSmallerForRepetitiveHistory() {
+        val source = log((0 until 1000).map { item(it) })
+        val plain = export(source, "binary").size
+        val gzip = export(source, "gzip").size
+        assertTrue("gzip $gzip vs plain $plain", gzip * 3 < plain)
+    }
+
+    @Test
+    fun mergeSkipsEntriesAlreadyInHistory() {
+        val exported = export(log((0 until 10).map { item(it) }), "binary")
+        val target = log((5 until 15).map { item(it) })
+
+        val result = import(target, exported)
+        assertEquals(10, result.read)
+        assertEquals(5, result.added)
+        assertEquals(5, result.duplicates())
+        assertEquals(15, target.size())
+        assertEquals((5 until 15).map { "word$it" } + (0 until 5).map { "word$it" }, contents(target).map { it[0] })
+    }
+
+    @Test
+    fun sameWordAtAnotherTimeIsNotADuplicate() {
+        val target = log(listOf(item(1)))
+        val again = WordItem("Word1 ", "noun", "m", "e", 99_999)
+        val same = WordItem("WORD1", "noun", "m", "e", item(1).savedAt)
+        val result = import(target, export(log(listOf(again, same)), "json"))
+        assertEquals(1, result.added)
+        assertEquals(99_999L, target.get(1).savedAt)
+    }
+
+    @Test
+    fun skipsRepeatsWithinOneFile() {
+        val doubled = log((0 until 3).map { item(it) } + (0 until 3).map { item(it) })
+        val target = log(emptyList())
+        val result = import(target, export(doubled, "gzip"))
+        assertEquals(6, result.read)
+        assertEquals(3, result.added)
+    }
+
+    @Test
+    fun readsHandWrittenJsonWithMissingFields() {
+        val json = "\uFEFF  [{\"word\":\"gist\",\"pos\":null,\"meaning\":\"The main point.\",\"savedAt\":5,\"extra\":[1,2]}," +
+            "{\"meaning\":\"no word, skipped\"}]"
+        val target = log(emptyList())
+        val result = import(target, json.toByteArray())
+        assertEquals(1, result.added)
+        assertEquals(listOf("gist", "", "The main point.", DictionaryParser.NO_EXAMPLE, "5"), contents(target)[0])
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.dailywords
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.RandomAccessFile
+
+/**
+ * Persistence of [InvertedIndex]: a snapshot plus the delta log appended after it reopens to
+ * the index that was built, whatever a crash did to the delta's tail, and compacting the
+ * delta into a new snapshot changes nothing a search can see.
+ */
+class InvertedIndexTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private lateinit var snapshot: File
+    private lateinit var delta: File
+
+    private fun files() {
+        val dir = tmp.newFolder()
+        snapshot = File(dir, "history.terms")
+        delta = File(dir, "history.terms.delta")
+    }
+
+    private fun text(doc: Int) = "word$doc shared ${if (doc % 2 == 0) "even" else "odd"} river"
+
+    private fun add(index: InvertedIndex, docs: IntRange) = docs.forEach { index.add(it, text(it)) }
+
+    private fun open() = InvertedIndex.load(snapshot, delta)
+
+    private fun hits(index: InvertedIndex, query: String) = index.search(query, 1000).map { it.doc to it.score }
+
+    private fun fresh(docs: IntRange) = InvertedIndex().also { add(it, docs) }
+
+    @Test
+    fun replaysDeltaOnTopOfSnapshot() {
+        files()
+        val index = InvertedIndex()
+        add(index, 0..9)
+        index.save(snapshot)
+        add(index, 10..12)
+        index.appendDelta(delta)
+        add(index, 13..14)
+        index.appendDelta(delta)
+
+        val reopened = open()
+        assertEquals(15, reopened.indexedDocs())
+        assertEquals(listOf(13), reopened.search("word13", 10).map { it.doc })
+        assertEquals(hits(fresh(0..14), "even river"), hits(reopened, "even river"))
+    }
+
+    @Test
+    fun replaysDeltaWithoutSnapshot() {
+        files()
+        val index = InvertedIndex()
+        add(index, 0..4)
+        index.appendDelta(delta)
+
+        val reopened = open()
+        assertEquals(5, reopened.indexedDocs())
+        assertEquals(hits(fresh(0..4), "shared"), hits(reopened, "shared"))
+    }
+
+    @Test
+    fun dropsTornDeltaTailAndStaysAppendable() {
+        files()
+        val index = InvertedIndex()
+        add(index, 0..2)
+        index.save(snapshot)
+        add(index, 3..5)
+        index.appendDelta(delta)
+        RandomAccessFile(delta, "rw").use { it.setLength(it.length() - 3) }
+
+        var reopened = open()
+        assertEquals(5, reopened.indexedDocs())
+        add(reopened, 5..7)
+        reopened.appendDelta(delta)
+
+        reopened = open()
+        assertEquals(8, reopened.indexedDocs())
+        assertEquals(hits(fresh(0..7), "odd word7"), hits(reopened, "odd word7"))
+    }
+
+    @Test
+    fun stopsAtOutOfSequenceRecord() {
+        files()
+        val index = InvertedIndex()
+        add(index, 0..3)
+        index.save(snapshot)
+        // A delta written after documents the snapshot never got
+        val other = InvertedIndex()
+        add(other, 0..5)
+        other.save(File(tmp.newFolder(), "other"))
+        add(other, 6..7)
+        other.appendDelta(delta)
+
+        val reopened = open()
+        assertEquals(4, reopened.indexedDocs())
+        assertEquals(0L, delta.length())
+    }
+
+    @Test
+    fun compactionKeepsSearchResults() {
+        files()
+        val index = InvertedIndex()
+        add(index, 0..19)
+        index.save(snapshot)
+        add(index, 20..29)
+        index.appendDelta(delta)
+        val before = hits(open(), "even shared word25")
+
+        // What HistorySearch does once the delta has grown: snapshot, then drop the delta
+        index.save(snapshot)
+        delta.delete()
+        assertEquals(before, hits(open(), "even shared word25"))
+
+        // A save leaves nothing pending for the next append
+        index.appendDelta(delta)
+        assertFalse(delta.exists())
+    }
+
+    @Test
+    fun skipsDeltaRecordsAlreadyInSnapshot() {
+        files()
+        val index = InvertedIndex()
+        add(index, 0..2)
+        index.appendDelta(delta)
+        add(index, 3..4)
+        index.appendDelta(delta)
+        // Crash between writing the snapshot and deleting the delta
+        index.save(snapshot)
+
+        val reopened = open()
+        assertEquals(5, reopened.indexedDocs())
+        assertEquals(hits(fresh(0..4), "shared river"), hits(reopened, "shared river"))
+    }
+
+    @Test
+    fun ignoresForeignSnapshot() {
+        files()
+        snapshot.writeBytes(ByteArray(32) { 1 })
+        assertEquals(0, open().indexedDocs())
+    }
+}
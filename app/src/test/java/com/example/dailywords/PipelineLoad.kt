@@ -0,0 +1,85 @@
+package com.example.dailywords
+
+import java.io.IOException
+import java.io.InterruptedIOException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Drives one pipeline iteration from [threads] threads until [durationMillis] has passed.
+ * An iteration returns an outcome label; an IOException is an anticipated failure and is
+ * labelled by kind, anything else is unexpected and kept for the test to fail on.
+ * The calling thread runs [onWait] every few milliseconds until the workers are done, e.g. to
+ * pump a looper the iterations are waiting on.
+ */
+class PipelineLoad(private val threads: Int, private val durationMillis: Long) {
+
+    class Report(
+        val iterations: Long,
+        val elapsedMillis: Long,
+        val outcomes: Map<String, Long>,
+        val latency: LatencyHistogram,
+        val unexpected: List<Throwable>,
+    ) {
+        fun count(outcome: String): Long = outcomes[outcome] ?: 0
+
+        fun throughput(): Double = if (elapsedMillis > 0) iterations * 1000.0 / elapsedMillis else 0.0
+
+        override fun toString(): String = buildString {
+            append("%d iterations in %.1f s, %.1f/s\n".format(iterations, elapsedMillis / 1000.0, throughput()))
+            append("latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f\n".format(
+                latency.percentileMs(0.5), latency.percentileMs(0.9),
+                latency.percentileMs(0.99), latency.percentileMs(0.999)))
+            for ((outcome, n) in outcomes.entries.sortedByDescending { it.value }) {
+                append("  %-28s %d\n".format(outcome, n))
+            }
+            if (unexpected.isNotEmpty()) append("unexpected: ${unexpected.first()}\n")
+        }
+    }
+
+    fun run(onWait: () -> Unit = {}, iteration: () -> String): Report {
+        val latency = LatencyHistogram()
+        val outcomes = ConcurrentHashMap<String, AtomicLong>()
+        val unexpected = CopyOnWriteArrayList<Throwable>()
+        val iterations = AtomicLong()
+        val started = System.nanoTime()
+        val deadline = started + TimeUnit.MILLISECONDS.toNanos(durationMillis)
+
+        val pool = Executors.newFixedThreadPool(threads)
+        repeat(threads) {
+            pool.execute {
+                while (System.nanoTime() < deadline) {
+                    val t0 = System.nanoTime()
+                    val outcome = try {
+                        iteration()
+                    } catch (e: CircuitBreaker.OpenException) {
+                        "breaker-open"
+                    } catch (e: InterruptedIOException) {
+                        "timeout"
+                    } catch (e: IOException) {
+                        "io: " + (e.message ?: e.javaClass.simpleName).replace(Regex("\\d{4,}"), "#")
+                    } catch (e: Throwable) {
+                        unexpected.add(e)
+                        "unexpected: " + e.javaClass.simpleName
+                    }
+                    latency.recordNanos(System.nanoTime() - t0)
+                    iterations.incrementAndGet()
+                    outcomes.getOrPut(outcome) { AtomicLong() }.incrementAndGet()
+                }
+            }
+        }
+        pool.shutdown()
+        val waitUntil = deadline + TimeUnit.SECONDS.toNanos(60)
+        while (!pool.awaitTermination(10, TimeUnit.MILLISECONDS) && System.nanoTime() < waitUntil) onWait()
+        return Report(
+            iterations.get(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+            outcomes.mapValues { it.value.get() },
+            latency,
+            unexpected,
+        )
+    }
+}
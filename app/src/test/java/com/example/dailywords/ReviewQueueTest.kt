@@ -0,0 +1,139 @@
+package com.example.dailywords
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.RandomAccessFile
+
+/**
+ * Persistence of [ReviewQueue]: the heap file reopens to the same schedule, slots lost or
+ * duplicated by a torn write are repaired, and a header that can't be right is thrown away
+ * instead of being sized from.
+ */
+class ReviewQueueTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    private val day = 24L * 60 * 60 * 1000
+
+    private fun path() = File(tmp.newFolder(), "review.heap")
+
+    // Entry i due on day (n - i), so the heap has to reorder them
+    private fun fill(path: File, n: Int) {
+        val queue = ReviewQueue(path, n)
+        queue.addAll(0, LongArray(n) { (n - it) * day })
+        queue.close()
+    }
+
+    private fun docs(queue: ReviewQueue) = queue.due(Long.MAX_VALUE, Int.MAX_VALUE).map { it.doc }
+
+    private fun slot(i: Int) = 16L + i * 24L
+
+    @Test
+    fun reopensTheSameSchedule() {
+        val path = path()
+        fill(path, 10)
+        var queue = ReviewQueue(path, 11)
+        queue.add(10, 50 * day)
+        queue.grade(9, ReviewScheduler.GOOD, 3 * day)
+        queue.close()
+
+        queue = ReviewQueue(path, 11)
+        assertEquals(11, queue.size())
+        assertEquals(11, queue.coveredDocs())
+        assertEquals(8, queue.peek()!!.doc)
+        assertEquals(3 * day + day, queue.get(9)!!.due)
+        assertEquals(1, queue.get(9)!!.repetitions)
+        assertEquals(50 * day, queue.get(10)!!.due)
+        assertEquals((0..10).toSet(), docs(queue).toSet())
+    }
+
+    @Test
+    fun keepsDueOrderAfterReopen() {
+        val path = path()
+        fill(path, 200)
+        val dues = ReviewQueue(path, 200).due(Long.MAX_VALUE, Int.MAX_VALUE).map { it.due }
+        assertEquals(dues.sorted(), dues)
+        assertEquals(200, dues.size)
+    }
+
+    @Test
+    fun reschedulesEntryFromTornSlot() {
+        val path = path()
+        fill(path, 5)
+        RandomAccessFile(path, "rw").use { it.setLength(it.length() - 10) }
+
+        val queue = ReviewQueue(path, 5)
+        assertEquals(5, queue.size())
+        val lost = (0 until 5).single { queue.get(it)!!.due == 0L }
+        assertEquals(lost, queue.peek()!!.doc)
+        assertEquals(16L + 5 * 24L, path.length())
+    }
+
+    @Test
+    fun repairsDuplicateSlot() {
+        val path = path()
+        fill(path, 6)
+        RandomAccessFile(path, "rw").use {
+            val first = ByteArray(24)
+            it.seek(slot(0))
+            it.readFully(first)
+            it.seek(slot(3))
+            it.write(first)
+        }
+
+        val queue = ReviewQueue(path, 6)
+        assertEquals(6, queue.size())
+        assertEquals((0 until 6).toSet(), docs(queue).toSet())
+        queue.close()
+        assertEquals((0 until 6).toSet(), docs(ReviewQueue(path, 6)).toSet())
+    }
+
+    @Test
+    fun restoresHeapOrderAfterTornSwap() {
+        val path = path()
+        fill(path, 7)
+        RandomAccessFile(path, "rw").use {
+            it.seek(slot(0))
+            it.writeLong(99 * day) // root no longer the smallest
+        }
+        val dues = ReviewQueue(path, 7).due(Long.MAX_VALUE, Int.MAX_VALUE).map { it.due }
+        assertEquals(dues.sorted(), dues)
+    }
+
+    @Test
+    fun startsOverWhenHeaderCoversMoreThanHistory() {
+        val path = path()
+        fill(path, 4)
+        RandomAccessFile(path, "rw").use {
+            it.seek(12)
+            it.writeInt(Int.MAX_VALUE)
+        }
+
+        var queue = ReviewQueue(path, 4)
+        assertEquals(0, queue.size())
+        assertEquals(0, queue.coveredDocs())
+        assertEquals(16L, path.length())
+        queue.close()
+
+        // Shrunk history: the saved schedule covers entries that are gone
+        fill(path, 4)
+        queue = ReviewQueue(path, 2)
+        assertEquals(0, queue.coveredDocs())
+        queue.addAll(0, longArrayOf(day, 2 * day))
+        assertEquals(listOf(0, 1), docs(queue))
+    }
+
+    @Test
+    fun startsOverOnForeignFile() {
+        val path = path()
+        path.writeBytes(ByteArray(64) { 7 })
+        val queue = ReviewQueue(path, 10)
+        assertEquals(0, queue.size())
+        assertNull(queue.peek())
+    }
+}
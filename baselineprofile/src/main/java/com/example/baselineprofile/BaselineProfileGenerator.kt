@@ -0,0 +1,37 @@
+package com.example.baselineprofile
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.Direction
+import androidx.test.uiautomator.Until
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Generates the app's baseline profile from a cold start followed by a scroll through history.
+ *
+ * Run with `./gradlew :app:generateReleaseBaselineProfile`; the result lands in
+ * app/src/release/generated/baselineProfiles.
+ */
+@RunWith(AndroidJUnit4::class)
+class BaselineProfileGenerator {
+
+    @get:Rule
+    val rule = BaselineProfileRule()
+
+    @Test
+    fun generate() = rule.collect(packageName = TARGET_PACKAGE) {
+        pressHome()
+        startActivityAndWait()
+
+        val history = device.wait(Until.findObject(By.res(TARGET_PACKAGE, "rvHistory")), 5_000)
+        if (history != null) {
+            history.setGestureMargin(device.displayWidth / 5)
+            history.fling(Direction.DOWN)
+            device.waitForIdle()
+            history.fling(Direction.UP)
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.dailywords.benchmark;
+
+import com.example.dailywords.WordItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Synthetic inputs shaped like real dictionaryapi.dev responses and history entries. */
+final class BenchmarkData {
+    private BenchmarkData() {}
+
+    static List<WordItem> history(int size) {
+        List<WordItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) items.add(item(i));
+        return items;
+    }
+
+    static WordItem item(int i) {
+        return new WordItem("word" + i, "noun",
+                "A moderately long definition for entry " + i + ", about as long as a typical dictionary sense.",
+                "An example sentence that uses word" + i + " in context.", 1_700_000_000_000L + i);
+    }
+
+    /** One entry with {@code meanings} parts of speech, each with {@code senses} definitions. */
+    static String dictionaryResponse(int meanings, int senses) {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("[{\"word\":\"set\",\"phonetic\":\"/sɛt/\",\"phonetics\":[");
+        for (int p = 0; p < 4; p++) {
+            if (p > 0) sb.append(',');
+            sb.append("{\"text\":\"/sɛt/\",\"audio\":\"https://api.dictionaryapi.dev/media/pronunciations/en/set-").append(p)
+                    .append(".mp3\",\"sourceUrl\":\"https://commons.wikimedia.org/w/index.php?curid=").append(p).append("\"}");
+        }
+        sb.append("],\"meanings\":[");
+        for (int m = 0; m < meanings; m++) {
+            if (m > 0) sb.append(',');
+            sb.append("{\"partOfSpeech\":\"pos").append(m).append("\",\"definitions\":[");
+            for (int d = 0; d < senses; d++) {
+                if (d > 0) sb.append(',');
+                sb.append("{\"definition\":\"Sense ").append(d).append(" of meaning ").append(m)
+                        .append(", written out at a realistic length for a dictionary definition.\",")
+                        .append("\"synonyms\":[\"alpha\",\"beta\",\"gamma\"],\"antonyms\":[\"delta\"],")
+                        .append("\"example\":\"An example for sense ").append(d).append(".\"}");
+            }
+            sb.append("],\"synonyms\":[\"one\",\"two\"],\"antonyms\":[]}");
+        }
+        sb.append("],\"license\":{\"name\":\"CC BY-SA 3.0\",\"url\":\"https://creativecommons.org/licenses/by-sa/3.0\"},")
+                .append("\"sourceUrls\":[\"https://en.wiktionary.org/wiki/set\"]}]");
+        return sb.toString();
+    }
+}
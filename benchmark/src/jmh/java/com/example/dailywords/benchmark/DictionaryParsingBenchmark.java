@@ -0,0 +1,72 @@
+package com.example.dailywords.benchmark;
+
+import com.example.dailywords.DictionaryParser;
+import com.example.dailywords.WordItem;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dictionary response parsing: the Gson tree parse WordFetcher used originally against the
+ * streaming DictionaryParser. "small" is a typical word, "large" is a common word with many
+ * senses (tens of KB).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DictionaryParsingBenchmark {
+
+    @Param({"small", "large"})
+    public String shape;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        String json = shape.equals("small")
+                ? BenchmarkData.dictionaryResponse(1, 2)
+                : BenchmarkData.dictionaryResponse(6, 40);
+        body = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public WordItem treeParse() {
+        // Mirrors the original WordFetcher code: whole body to a String, then a full tree
+        String text = new String(body, StandardCharsets.UTF_8);
+        String pos = "", def = "Not found", ex = "No example";
+        JsonArray arr = JsonParser.parseString(text).getAsJsonArray();
+        JsonArray meanings = arr.get(0).getAsJsonObject().getAsJsonArray("meanings");
+        for (int i = 0; i < meanings.size(); i++) {
+            JsonObject meaningObj = meanings.get(i).getAsJsonObject();
+            pos = meaningObj.get("partOfSpeech").getAsString();
+            JsonArray defs = meaningObj.getAsJsonArray("definitions");
+            if (defs.size() > 0) {
+                JsonObject defObj = defs.get(0).getAsJsonObject();
+                if (defObj.has("definition")) def = defObj.get("definition").getAsString();
+                if (defObj.has("example")) ex = defObj.get("example").getAsString();
+                break;
+            }
+        }
+        return new WordItem("set", pos, def, ex, 0);
+    }
+
+    @Benchmark
+    public WordItem streamingParse() {
+        return DictionaryParser.parse("set",
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.dailywords.benchmark;
+
+import com.example.dailywords.HistoryLog;
+import com.example.dailywords.WordItem;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one word in history at a given history size: the original saveWord path
+ * (parse blob, insert at 0, serialize blob) against an append to HistoryLog. The legacy path
+ * leaves out the SharedPreferences write itself, so it understates the real cost.
+ *
+ * The two are not symmetric on I/O: every HistoryLog append ends in an fsync of the log
+ * ({@code force(false)}), while the legacy path never touches the disk. On most storage the
+ * fsync dominates logAppend, so read its numbers for how little they move with {@code size}
+ * rather than against legacyBlobInsert's absolute ones. The log is cut back to {@code size}
+ * entries before every append, so the history size holds throughout the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistoryInsertBenchmark {
+    private static final Type HISTORY_TYPE = new TypeToken<ArrayList<WordItem>>(){}.getType();
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private final Gson gson = new Gson();
+    private final WordItem newWord = BenchmarkData.item(-1);
+    private List<WordItem> history;
+    private String blob;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        history = BenchmarkData.history(size);
+        blob = gson.toJson(history);
+    }
+
+    /** A HistoryLog of {@code size} entries, restored to that size before each invocation. */
+    @State(Scope.Thread)
+    public static class Log {
+        private File dir;
+        private File logFile;
+        private File idxFile;
+        private long logLength;
+        private long idxLength;
+        private int size;
+        HistoryLog log;
+
+        @Setup(Level.Trial)
+        public void create(HistoryInsertBenchmark bench) throws IOException {
+            dir = File.createTempFile("history", "bench");
+            if (!dir.delete() || !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+            logFile = new File(dir, "history.log");
+            idxFile = new File(dir, "history.idx");
+            size = bench.size;
+            log = new HistoryLog(dir);
+            log.appendAll(bench.history);
+            log.close();
+            logLength = logFile.length();
+            idxLength = idxFile.length();
+            log = new HistoryLog(dir);
+        }
+
+        // Not timed: drops the entry the last invocation appended
+        @Setup(Level.Invocation)
+        public void reset() throws IOException {
+            if (log.size() == size) return;
+            log.close();
+            try (RandomAccessFile f = new RandomAccessFile(logFile, "rw")) {
+                f.setLength(logLength);
+            }
+            try (RandomAccessFile f = new RandomAccessFile(idxFile, "rw")) {
+                f.setLength(idxLength);
+            }
+            log = new HistoryLog(dir);
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            log.close();
+            File[] files = dir.listFiles();
+            if (files != null) for (File f : files) f.delete();
+            dir.delete();
+        }
+    }
+
+    @Benchmark
+    public String legacyBlobInsert() {
+        List<WordItem> history = gson.fromJson(blob, HISTORY_TYPE);
+        history.add(0, newWord);
+        return gson.toJson(history);
+    }
+
+    @Benchmark
+    public int logAppend(Log state) throws IOException {
+        return state.log.append(newWord);
+    }
+}
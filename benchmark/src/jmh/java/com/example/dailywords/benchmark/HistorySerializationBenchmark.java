@@ -0,0 +1,50 @@
+package com.example.dailywords.benchmark;
+
+import com.example.dailywords.WordItem;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Gson (de)serialization of the whole ArrayList<WordItem>, as the word_history blob was stored. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistorySerializationBenchmark {
+    private static final Type HISTORY_TYPE = new TypeToken<ArrayList<WordItem>>(){}.getType();
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    private final Gson gson = new Gson();
+    private List<WordItem> history;
+    private String json;
+
+    @Setup
+    public void setup() {
+        history = BenchmarkData.history(size);
+        json = gson.toJson(history);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return gson.toJson(history);
+    }
+
+    @Benchmark
+    public List<WordItem> deserialize() {
+        return gson.fromJson(json, HISTORY_TYPE);
+    }
+}
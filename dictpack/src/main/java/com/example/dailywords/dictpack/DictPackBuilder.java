@@ -0,0 +1,116 @@
+package com.example.dailywords.dictpack;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Builds the offline dictionary pack read by the app's OfflineDictionary.
+ *
+ * Input is a JSON array of {"word", "partOfSpeech", "definition", "example"} objects.
+ * The first entry for a word wins. Usage:
+ *
+ *     ./gradlew :dictpack:run --args="words.json ../app/src/main/assets/dictionary.pack"
+ *
+ * Layout (big-endian):
+ *     int magic "DWDP", int version, int count, int reserved
+ *     int[count] entry offsets, sorted by the entry's UTF-8 key bytes
+ *     entries: u16 keyLen, key, u16 posLen, pos, int meaningLen, meaning, int exampleLen, example
+ */
+public class DictPackBuilder {
+    static final int MAGIC = 0x44574450; // "DWDP"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: DictPackBuilder <source.json> <output.pack>");
+            System.exit(2);
+        }
+        TreeMap<byte[], byte[]> entries = read(args[0]);
+        write(entries, args[1]);
+        System.out.println("Wrote " + entries.size() + " words to " + args[1]);
+    }
+
+    private static TreeMap<byte[], byte[]> read(String path) throws IOException {
+        TreeMap<byte[], byte[]> entries = new TreeMap<>(Arrays::compareUnsigned);
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                String word = null, pos = "", definition = null, example = "";
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        continue;
+                    }
+                    switch (name) {
+                        case "word": word = reader.nextString(); break;
+                        case "partOfSpeech": pos = reader.nextString(); break;
+                        case "definition": definition = reader.nextString(); break;
+                        case "example": example = reader.nextString(); break;
+                        default: reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (word == null || definition == null) continue;
+
+                byte[] key = word.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+                if (key.length == 0 || entries.containsKey(key)) continue;
+                entries.put(key, encodeEntry(key, pos, definition, example));
+            }
+            reader.endArray();
+        }
+        return entries;
+    }
+
+    private static byte[] encodeEntry(byte[] key, String pos, String meaning, String example) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buf);
+        byte[] posBytes = pos.getBytes(StandardCharsets.UTF_8);
+        byte[] meaningBytes = meaning.getBytes(StandardCharsets.UTF_8);
+        byte[] exampleBytes = example.getBytes(StandardCharsets.UTF_8);
+        if (key.length > 0xFFFF || posBytes.length > 0xFFFF) throw new IOException("Field too long");
+        out.writeShort(key.length);
+        out.write(key);
+        out.writeShort(posBytes.length);
+        out.write(posBytes);
+        out.writeInt(meaningBytes.length);
+        out.write(meaningBytes);
+        out.writeInt(exampleBytes.length);
+        out.write(exampleBytes);
+        return buf.toByteArray();
+    }
+
+    private static void write(TreeMap<byte[], byte[]> entries, String path) throws IOException {
+        List<byte[]> sorted = new ArrayList<>(entries.values());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sorted.size());
+            out.writeInt(0);
+
+            long offset = HEADER_SIZE + 4L * sorted.size();
+            for (byte[] entry : sorted) {
+                if (offset > Integer.MAX_VALUE) throw new IOException("Pack too large");
+                out.writeInt((int) offset);
+                offset += entry.length;
+            }
+            for (byte[] entry : sorted) out.write(entry);
+        }
+    }
+}